@@ -1,6 +1,6 @@
 import { useState, useEffect, useRef } from 'react';
 
-function useSSE(url) {
+function useSSE(url, eventName = 'message') {
   const [data, setData] = useState(null);
   const [error, setError] = useState(null);
   const [isConnected, setIsConnected] = useState(false);
@@ -17,7 +17,8 @@ function useSSE(url) {
       setError(null);
     };
 
-    eventSource.onmessage = (event) => {
+    // Named events (event: xxx) are not delivered to onmessage
+    eventSource.addEventListener(eventName, (event) => {
       try {
         const parsedData = JSON.parse(event.data);
         setData(parsedData);
@@ -25,7 +26,7 @@ function useSSE(url) {
         console.error('Failed to parse SSE data:', err);
         setError(err);
       }
-    };
+    });
 
     eventSource.onerror = (err) => {
       console.error('SSE error:', err);
@@ -37,7 +38,7 @@ function useSSE(url) {
       eventSource.close();
       setIsConnected(false);
     };
-  }, [url]);
+  }, [url, eventName]);
 
   const reconnect = () => {
     if (eventSourceRef.current) {
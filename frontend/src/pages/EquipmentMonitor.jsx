@@ -42,15 +42,16 @@ function EquipmentMonitor() {
   const [selectedEquipment, setSelectedEquipment] = useState(null);
   const [chartData, setChartData] = useState({
     temperature: { labels: [], data: [] },
-    vibration: { labels: [], data: [] },
-    pressure: { labels: [], data: [] },
+    productionSpeed: { labels: [], data: [] },
+    anomalyScore: { labels: [], data: [] },
   });
 
   // SSE for real-time equipment data
   const { data: sseData } = useSSE(
     selectedEquipment
       ? `http://localhost:8080/api/equipment/${selectedEquipment.id}/stream`
-      : null
+      : null,
+    'equipment-data'
   );
 
   useEffect(() => {
@@ -88,12 +89,18 @@ function EquipmentMonitor() {
 
       return {
         temperature: updateMetric('temperature', data.temperature),
-        vibration: updateMetric('vibration', data.vibration),
-        pressure: updateMetric('pressure', data.pressure),
+        productionSpeed: updateMetric('productionSpeed', data.productionSpeed),
+        anomalyScore: updateMetric('anomalyScore', anomalyScore(data)),
       };
     });
   };
 
+  // Larger of the temperature / speed z-scores; null while the detector warms up
+  const anomalyScore = (data) => {
+    const scores = [data.temperatureZScore, data.speedZScore].filter((z) => z != null);
+    return scores.length > 0 ? Math.max(...scores.map(Math.abs)) : null;
+  };
+
   const getStatusColor = (status) => {
     switch (status) {
       case 'RUN':
@@ -226,13 +233,13 @@ function EquipmentMonitor() {
             <Grid item xs={12} md={4}>
               <Paper sx={{ p: 2, height: 300 }}>
                 <Typography variant="h6" gutterBottom>
-                  Vibration (Hz)
+                  Production Speed
                 </Typography>
                 <Box sx={{ height: 'calc(100% - 40px)' }}>
                   <Line
                     data={createChartConfig(
-                      'Vibration',
-                      chartData.vibration,
+                      'Production Speed',
+                      chartData.productionSpeed,
                       '#ff9800'
                     )}
                     options={chartOptions}
@@ -244,13 +251,13 @@ function EquipmentMonitor() {
             <Grid item xs={12} md={4}>
               <Paper sx={{ p: 2, height: 300 }}>
                 <Typography variant="h6" gutterBottom>
-                  Pressure (bar)
+                  Anomaly Score (σ)
                 </Typography>
                 <Box sx={{ height: 'calc(100% - 40px)' }}>
                   <Line
                     data={createChartConfig(
-                      'Pressure',
-                      chartData.pressure,
+                      'Anomaly Score',
+                      chartData.anomalyScore,
                       '#4caf50'
                     )}
                     options={chartOptions}
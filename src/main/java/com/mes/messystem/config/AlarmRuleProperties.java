@@ -0,0 +1,68 @@
+package com.mes.messystem.config;
+
+import com.mes.messystem.domain.EquipmentType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming alarm rules (mes.alarm.*).
+ * Equipment types without their own rule list use default-rules.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "mes.alarm")
+public class AlarmRuleProperties {
+
+    // minimum gap between two "entered ALARM" alerts for one equipment
+    private long statusCooldownSeconds = 60;
+
+    private List<Rule> defaultRules = new ArrayList<>();
+
+    private Map<EquipmentType, List<Rule>> rules = new EnumMap<>(EquipmentType.class);
+
+    public List<Rule> rulesFor(EquipmentType type) {
+        List<Rule> typeRules = type != null ? rules.get(type) : null;
+        return typeRules != null ? typeRules : defaultRules;
+    }
+
+    public enum Metric {
+        TEMPERATURE,
+        PRODUCTION_SPEED
+    }
+
+    public enum RuleType {
+        THRESHOLD,        // value beyond threshold
+        RATE_OF_CHANGE,   // change per second beyond threshold
+        SUSTAINED         // value beyond threshold for sustain-seconds
+    }
+
+    public enum Direction {
+        ABOVE,
+        BELOW
+    }
+
+    @Getter
+    @Setter
+    public static class Rule {
+        private String name;
+        private Metric metric = Metric.TEMPERATURE;
+        private RuleType type = RuleType.THRESHOLD;
+        private Direction direction = Direction.ABOVE;
+        private double threshold;
+        // hysteresis: an active rule clears only once the value is back past this; defaults to threshold
+        private Double clearThreshold;
+        private long sustainSeconds;
+        private long cooldownSeconds = 300;
+        private String severity = "WARNING";
+
+        public double effectiveClearThreshold() {
+            return clearThreshold != null ? clearThreshold : threshold;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.mes.messystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Streaming EWMA anomaly detection (mes.anomaly.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "mes.anomaly")
+public class AnomalyProperties {
+
+    private boolean enabled = true;
+
+    // weight of each new sample in the mean / variance (~1/alpha samples of memory)
+    private double alpha = 0.05;
+
+    // slow baseline the fast mean is compared against for drift
+    private double baselineAlpha = 0.002;
+
+    // no scoring or alerts until this many samples have been seen
+    private int warmupSamples = 30;
+
+    // |z| of one sample against the running mean and standard deviation
+    private double zScoreThreshold = 4.0;
+    private double zScoreClear = 2.0;
+
+    // (fast mean - baseline) in standard deviations
+    private double driftThreshold = 2.0;
+    private double driftClear = 1.0;
+
+    // floors so a nearly constant signal does not turn noise into huge scores
+    private double minTemperatureStddev = 0.2;
+    private double minSpeedStddev = 1.0;
+
+    private long cooldownSeconds = 300;
+}
@@ -0,0 +1,54 @@
+package com.mes.messystem.config;
+
+import com.mes.messystem.ingest.BinaryTelemetryListener;
+import com.mes.messystem.service.EquipmentDataService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary TCP telemetry ingest (mes.ingest.binary.enabled=true).
+ * Decoded batches go through EquipmentDataService like /api/equipment-data/batch.
+ * Batches are saved on one worker; when its queue is full the selector thread
+ * saves the batch itself, which stops reading and pushes back on gateways via TCP.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "mes.ingest.binary.enabled", havingValue = "true")
+public class BinaryTelemetryConfig implements DisposableBean {
+
+    private final ThreadPoolExecutor ingestExecutor;
+
+    public BinaryTelemetryConfig(@Value("${mes.ingest.binary.pending-batches:64}") int pendingBatches) {
+        this.ingestExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(pendingBatches),
+                runnable -> new Thread(runnable, "telemetry-ingest"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public BinaryTelemetryListener binaryTelemetryListener(
+            EquipmentDataService equipmentDataService,
+            @Value("${mes.ingest.binary.port:9100}") int port,
+            @Value("${mes.ingest.binary.read-buffer-bytes:65536}") int readBufferBytes) {
+        return new BinaryTelemetryListener(port, readBufferBytes, batch -> ingestExecutor.execute(() -> {
+            try {
+                equipmentDataService.saveEquipmentDataBatch(batch);
+            } catch (Exception e) {
+                log.warn("Binary telemetry batch of {} samples failed: {}", batch.size(), e.getMessage());
+            }
+        }));
+    }
+
+    @Override
+    public void destroy() {
+        ingestExecutor.shutdown();
+    }
+}
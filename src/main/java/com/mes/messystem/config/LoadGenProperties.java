@@ -0,0 +1,56 @@
+package com.mes.messystem.config;
+
+import com.mes.messystem.domain.EquipmentStatus;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load generation run (mes.loadgen.*, active with the loadgen profile)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "mes.loadgen")
+public class LoadGenProperties {
+
+    public enum Mode {
+        IN_PROCESS,         // EquipmentDataService.saveEquipmentData per sample
+        IN_PROCESS_BATCH,   // EquipmentDataService.saveEquipmentDataBatch
+        HTTP,               // POST /api/equipment-data per sample
+        HTTP_BATCH          // POST /api/equipment-data/batch
+    }
+
+    private Mode mode = Mode.IN_PROCESS_BATCH;
+
+    // virtual machines; equipment rows named with the prefix are created when missing
+    private int machines = 2000;
+    private String equipmentPrefix = "LOADGEN-";
+    private int machinesPerLine = 20;
+
+    // samples per second per machine
+    private double sampleRate = 1.0;
+
+    // concurrent producers, each a virtual thread owning a slice of the machines
+    private int producers = 200;
+
+    // samples per request in batch modes
+    private int batchSize = 100;
+
+    private long durationSeconds = 60;
+    private long warmupSeconds = 5;
+
+    private String baseUrl = "http://localhost:8080";
+    private long requestTimeoutMs = 10000;
+
+    // chance per sample that a machine leaves its current status
+    private double statusChangeProbability = 0.01;
+
+    // relative weight of the status a machine changes to
+    private Map<EquipmentStatus, Integer> statusWeights = new EnumMap<>(Map.of(
+            EquipmentStatus.RUN, 80,
+            EquipmentStatus.IDLE, 15,
+            EquipmentStatus.ALARM, 5));
+}
@@ -0,0 +1,53 @@
+package com.mes.messystem.config;
+
+import com.mes.messystem.domain.EquipmentType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Raw equipment_data retention (mes.retention.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "mes.retention")
+public class RetentionProperties {
+
+    // off by default: purging deletes raw history, so opt in (ideally with archive on)
+    private boolean enabled = false;
+
+    // raw rows older than this are purged, unless overridden per equipment type
+    private int defaultDays = 30;
+
+    private Map<EquipmentType, Integer> days = new EnumMap<>(EquipmentType.class);
+
+    // rows per id-range chunk; each chunk is its own short statement
+    private int chunkSize = 5000;
+
+    // pause between chunks so ingest is never starved
+    private long chunkPauseMs = 50;
+
+    private Archive archive = new Archive();
+
+    public int daysFor(EquipmentType type) {
+        Integer override = type != null ? days.get(type) : null;
+        return override != null ? override : defaultDays;
+    }
+
+    public enum ArchiveFormat {
+        CSV_GZIP,   // gzip CSV files under directory
+        BLOCKS      // compressed telemetry_block rows, readable through the archive API
+    }
+
+    @Getter
+    @Setter
+    public static class Archive {
+        // archive expired rows before deleting them
+        private boolean enabled = false;
+        private ArchiveFormat format = ArchiveFormat.CSV_GZIP;
+        private String directory = "archive/equipment-data";
+    }
+}
@@ -13,6 +13,7 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOriginPatterns("*")  // allowedOrigins 대신 allowedOriginPatterns 사용
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("ETag")  // conditional GET 클라이언트가 ETag를 읽을 수 있도록
                 .allowCredentials(true);
     }
 }
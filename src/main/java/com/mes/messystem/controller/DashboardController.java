@@ -2,20 +2,32 @@ package com.mes.messystem.controller;
 
 import com.mes.messystem.dto.*;
 import com.mes.messystem.service.DashboardService;
+import com.mes.messystem.service.DashboardSnapshotService;
+import com.mes.messystem.service.DataVersionService;
+import com.mes.messystem.service.DataVersionService.Domain;
+import com.mes.messystem.service.SseHub;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
 
-import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 @Slf4j
 @RestController
@@ -25,161 +37,236 @@ import java.util.concurrent.TimeUnit;
 public class DashboardController {
 
     private final DashboardService dashboardService;
-    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private final DashboardSnapshotService dashboardSnapshotService;
+    private final SseHub sseHub;
+    private final DataVersionService dataVersionService;
+
+    private static final String TOPIC = "dashboard";
+    private static final String DELTA_TOPIC = "dashboard-delta";
+    private static final Duration REACTIVE_HEARTBEAT = Duration.ofSeconds(15);
+
+    @Value("${mes.dashboard.reactive-buffer-size:16}")
+    private int reactiveBufferSize;
 
     /**
      * Get complete dashboard data
      */
     @GetMapping
-    public ResponseEntity<DashboardResponse> getDashboard() {
-        DashboardResponse response = dashboardService.getDashboardData();
-        return ResponseEntity.ok(response);
+    public ResponseEntity<DashboardResponse> getDashboard(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // EQUIPMENT moves on status changes only; the per-minute scope keeps readings from going stale
+        String etag = dataVersionService.etag("dashboard-" + currentMinute(),
+                Domain.PRODUCTION, Domain.EQUIPMENT, Domain.WORK_ORDER);
+        ResponseEntity<DashboardResponse> response =
+                dataVersionService.conditional(ifNoneMatch, etag, dashboardService::getDashboardData);
+
+        // a response with fallback sections must not be cached under the current version
+        DashboardResponse body = response.getBody();
+        if (body != null && body.getStaleSections() != null && !body.getStaleSections().isEmpty()) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(body);
+        }
+        return response;
     }
 
     /**
      * Get today's production statistics
      */
     @GetMapping("/production/today")
-    public ResponseEntity<TodayProductionStats> getTodayProduction() {
-        TodayProductionStats stats = dashboardService.getTodayProductionStats();
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<TodayProductionStats> getTodayProduction(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return dataVersionService.conditional(ifNoneMatch, todayEtag("today"),
+                dashboardService::getTodayProductionStats);
     }
 
     /**
-     * Get defect rates by product
+     * Get defect rates by product, optionally limited to a processedAt window
      */
     @GetMapping("/defect-rates")
-    public ResponseEntity<List<ProductDefectRate>> getDefectRates() {
-        List<ProductDefectRate> rates = dashboardService.getProductDefectRates();
-        return ResponseEntity.ok(rates);
+    public ResponseEntity<List<ProductDefectRate>> getDefectRates(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = dataVersionService.etag("defect-rates-" + from + "-" + to, Domain.PRODUCTION);
+        return dataVersionService.conditional(ifNoneMatch, etag,
+                () -> dashboardService.getProductDefectRates(from, to));
     }
 
     /**
      * Get equipment statuses
      */
     @GetMapping("/equipment/statuses")
-    public ResponseEntity<List<EquipmentStatusSummary>> getEquipmentStatuses() {
-        List<EquipmentStatusSummary> statuses = dashboardService.getEquipmentStatuses();
-        return ResponseEntity.ok(statuses);
+    public ResponseEntity<List<EquipmentStatusSummary>> getEquipmentStatuses(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return dataVersionService.conditional(ifNoneMatch,
+                dataVersionService.etag("equipment-statuses-" + currentMinute(), Domain.EQUIPMENT),
+                dashboardService::getEquipmentStatuses);
     }
 
     /**
-     * Get work order progress
+     * Get work order progress, optionally only for open work orders
      */
     @GetMapping("/work/progress")
-    public ResponseEntity<List<WorkProgressInfo>> getWorkProgress() {
-        List<WorkProgressInfo> progress = dashboardService.getWorkProgresses();
-        return ResponseEntity.ok(progress);
+    public ResponseEntity<List<WorkProgressInfo>> getWorkProgress(
+            @RequestParam(defaultValue = "false") boolean activeOnly,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return dataVersionService.conditional(ifNoneMatch,
+                dataVersionService.etag("work-progress-" + activeOnly, Domain.WORK_ORDER),
+                () -> dashboardService.getWorkProgresses(activeOnly));
     }
 
     /**
      * Get dashboard stats (for frontend)
      */
     @GetMapping("/stats")
-    public ResponseEntity<TodayProductionStats> getStats() {
-        TodayProductionStats stats = dashboardService.getTodayProductionStats();
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<TodayProductionStats> getStats(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return dataVersionService.conditional(ifNoneMatch, todayEtag("stats"),
+                dashboardService::getTodayProductionStats);
     }
 
     /**
      * Get defect rate (for frontend)
      */
     @GetMapping("/defect-rate")
-    public ResponseEntity<java.util.Map<String, Object>> getDefectRate() {
-        TodayProductionStats stats = dashboardService.getTodayProductionStats();
-        int goodCount = stats.getProductionCount() - stats.getDefectCount();
-        return ResponseEntity.ok(java.util.Map.of(
-                "goodCount", goodCount,
-                "defectCount", stats.getDefectCount()
-        ));
+    public ResponseEntity<java.util.Map<String, Object>> getDefectRate(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return dataVersionService.conditional(ifNoneMatch, todayEtag("defect-rate"), () -> {
+            TodayProductionStats stats = dashboardService.getTodayProductionStats();
+            int goodCount = stats.getProductionCount() - stats.getDefectCount();
+            return java.util.Map.of(
+                    "goodCount", goodCount,
+                    "defectCount", stats.getDefectCount()
+            );
+        });
+    }
+
+    /**
+     * Full snapshot with its sequence number, for delta clients that need to resync
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<DashboardDelta> getSnapshot() {
+        DashboardSnapshot snapshot = dashboardSnapshotService.getLatest();
+        if (snapshot == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(dashboardSnapshotService.toFullDelta(snapshot));
     }
 
     /**
      * SSE endpoint for real-time dashboard updates
-     * Updates every 3 seconds
+     * Pushes the shared dashboard snapshot whenever it changes.
+     * mode=delta sends a full "dashboard-snapshot" first, then "dashboard-delta" events
      */
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter streamDashboard(@RequestParam(defaultValue = "3000") long interval) {
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
-        emitters.add(emitter);
-
-        log.info("New SSE connection established. Total connections: {}", emitters.size());
+    public SseEmitter streamDashboard(@RequestParam(defaultValue = "full") String mode) {
+        boolean delta = "delta".equalsIgnoreCase(mode);
 
-        emitter.onCompletion(() -> {
-            emitters.remove(emitter);
-            log.info("SSE connection completed. Remaining connections: {}", emitters.size());
-        });
-
-        emitter.onTimeout(() -> {
-            emitters.remove(emitter);
-            log.info("SSE connection timed out. Remaining connections: {}", emitters.size());
-        });
-
-        emitter.onError(e -> {
-            emitters.remove(emitter);
-            // Only log if it's not a client disconnect (broken pipe)
-            if (!(e instanceof AsyncRequestNotUsableException)) {
-                log.error("SSE connection error. Remaining connections: {}", emitters.size(), e);
+        return sseHub.connect(delta ? DELTA_TOPIC : TOPIC, connection -> {
+            // Send initial data
+            DashboardSnapshot snapshot = dashboardSnapshotService.getLatest();
+            if (snapshot == null) {
+                return;
+            }
+            if (delta) {
+                SseHub.SseMessage message = selectDelta(connection, snapshot,
+                        () -> fullDeltaMessage(snapshot), () -> fullDeltaMessage(snapshot));
+                if (message != null) {
+                    sseHub.send(connection, message);
+                }
             } else {
-                log.debug("Client disconnected from SSE. Remaining connections: {}", emitters.size());
+                sseHub.send(connection, sseHub.message("dashboard-update", snapshot.getData()));
             }
         });
+    }
 
-        // Send initial data
-        try {
-            DashboardResponse initialData = dashboardService.getDashboardData();
-            emitter.send(SseEmitter.event()
-                    .name("dashboard-update")
-                    .data(initialData));
-        } catch (IOException e) {
-            log.error("Error sending initial SSE data", e);
-            emitter.completeWithError(e);
+    /**
+     * Reactive SSE endpoint backed by the shared snapshot Flux.
+     * Each subscriber gets its own bounded buffer that drops the oldest snapshot
+     * when the client falls behind; idle subscribers hold no servlet thread.
+     */
+    @GetMapping(value = "/reactive-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<DashboardResponse>> reactiveStream() {
+        Flux<ServerSentEvent<DashboardResponse>> updates = dashboardSnapshotService.stream()
+                .onBackpressureBuffer(reactiveBufferSize,
+                        dropped -> log.debug("Dropped dashboard snapshot v{} for slow subscriber", dropped.getVersion()),
+                        BufferOverflowStrategy.DROP_OLDEST)
+                .map(snapshot -> ServerSentEvent.builder(snapshot.getData())
+                        .event("dashboard-update")
+                        .id(String.valueOf(snapshot.getVersion()))
+                        .build());
+
+        Flux<ServerSentEvent<DashboardResponse>> heartbeats = Flux.interval(REACTIVE_HEARTBEAT)
+                .map(tick -> ServerSentEvent.<DashboardResponse>builder().comment("heartbeat").build());
+
+        return Flux.merge(updates, heartbeats);
+    }
+
+    /**
+     * SSE hub connection and send-latency metrics
+     */
+    @GetMapping("/stream/metrics")
+    public ResponseEntity<SseHubMetrics> getStreamMetrics() {
+        return ResponseEntity.ok(sseHub.getMetrics());
+    }
+
+    @PostConstruct
+    public void subscribeToSnapshots() {
+        dashboardSnapshotService.subscribe(this::broadcastDashboardUpdate);
+    }
+
+    /**
+     * Broadcast dashboard snapshot to all connected clients
+     */
+    public void broadcastDashboardUpdate(DashboardSnapshot snapshot) {
+        if (sseHub.hasSubscribers(TOPIC)) {
+            sseHub.publish(TOPIC, sseHub.message("dashboard-update", snapshot.getData()));
         }
 
-        // Schedule periodic updates every 3 seconds
-        scheduler.scheduleAtFixedRate(() -> {
-            try {
-                if (emitters.contains(emitter)) {
-                    DashboardResponse data = dashboardService.getDashboardData();
-                    emitter.send(SseEmitter.event()
-                            .name("dashboard-update")
-                            .data(data));
-                }
-            } catch (IOException e) {
-                // Client disconnected - this is normal, just remove the emitter
-                emitters.remove(emitter);
-                log.debug("Client disconnected from SSE stream");
-            } catch (Exception e) {
-                log.error("Unexpected error sending SSE update", e);
-                emitter.completeWithError(e);
-                emitters.remove(emitter);
-            }
-        }, interval, interval, TimeUnit.MILLISECONDS);
+        if (sseHub.hasSubscribers(DELTA_TOPIC)) {
+            String id = String.valueOf(snapshot.getVersion());
+            SseHub.SseMessage deltaMessage = sseHub.message("dashboard-delta", id, snapshot.getDelta());
+            // Serialized at most once, only if some connection needs a resync
+            AtomicReference<SseHub.SseMessage> fullMessage = new AtomicReference<>();
+            Supplier<SseHub.SseMessage> full = () -> fullMessage.updateAndGet(
+                    message -> message != null ? message : fullDeltaMessage(snapshot));
 
-        return emitter;
+            sseHub.publish(DELTA_TOPIC, connection -> selectDelta(connection, snapshot, () -> deltaMessage, full));
+        }
+        log.debug("Broadcasted dashboard update v{} to {} SSE clients", snapshot.getVersion(), sseHub.connectionCount());
     }
 
     /**
-     * Broadcast dashboard update to all connected clients
+     * Pick the snapshot's delta if the connection is at its base sequence, otherwise a full resync
      */
-    public void broadcastDashboardUpdate() {
-        DashboardResponse data = dashboardService.getDashboardData();
-
-        List<SseEmitter> deadEmitters = new CopyOnWriteArrayList<>();
-
-        emitters.forEach(emitter -> {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name("dashboard-update")
-                        .data(data));
-            } catch (IOException e) {
-                deadEmitters.add(emitter);
-                log.warn("Failed to send to emitter, marking for removal", e);
+    private SseHub.SseMessage selectDelta(SseHub.SseConnection connection, DashboardSnapshot snapshot,
+                                          Supplier<SseHub.SseMessage> deltaMessage,
+                                          Supplier<SseHub.SseMessage> fullMessage) {
+        synchronized (connection) {
+            long lastSequence = connection.getSequence().get();
+            if (lastSequence >= snapshot.getVersion()) {
+                return null;
             }
-        });
 
-        emitters.removeAll(deadEmitters);
-        log.debug("Broadcasted dashboard update to {} clients", emitters.size());
+            DashboardDelta delta = snapshot.getDelta();
+            boolean inSync = !delta.isFull() && delta.getBaseSequence() == lastSequence;
+            connection.getSequence().set(snapshot.getVersion());
+            return inSync ? deltaMessage.get() : fullMessage.get();
+        }
+    }
+
+    private static LocalDateTime currentMinute() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    /**
+     * ETag for views over today's production; the date rolls it over at midnight
+     */
+    private String todayEtag(String scope) {
+        return dataVersionService.etag(scope + "-" + LocalDate.now(), Domain.PRODUCTION);
+    }
+
+    private SseHub.SseMessage fullDeltaMessage(DashboardSnapshot snapshot) {
+        return sseHub.message("dashboard-snapshot", String.valueOf(snapshot.getVersion()),
+                dashboardSnapshotService.toFullDelta(snapshot));
     }
 }
@@ -1,20 +1,19 @@
 package com.mes.messystem.controller;
 
 import com.mes.messystem.domain.Equipment;
+import com.mes.messystem.dto.EquipmentStateDurations;
 import com.mes.messystem.repository.EquipmentRepository;
+import com.mes.messystem.service.EquipmentStateTracker;
+import com.mes.messystem.service.EquipmentStreamService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequiredArgsConstructor
@@ -23,8 +22,8 @@ import java.util.concurrent.TimeUnit;
 public class EquipmentController {
 
     private final EquipmentRepository equipmentRepository;
-    private final Map<Long, SseEmitter> equipmentEmitters = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private final EquipmentStateTracker equipmentStateTracker;
+    private final EquipmentStreamService equipmentStreamService;
 
     @GetMapping
     public List<Equipment> getAll() {
@@ -44,45 +43,42 @@ public class EquipmentController {
     }
 
     /**
-     * SSE endpoint for real-time equipment data
+     * Time spent in each status for the current shift or day, or for [from, to)
      */
-    @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter streamEquipmentData(@PathVariable Long id) {
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
-        equipmentEmitters.put(id, emitter);
-
-        emitter.onCompletion(() -> equipmentEmitters.remove(id));
-        emitter.onTimeout(() -> equipmentEmitters.remove(id));
-        emitter.onError(e -> equipmentEmitters.remove(id));
-
-        // Send initial mock data
-        try {
-            emitter.send(SseEmitter.event()
-                    .name("equipment-data")
-                    .data(generateMockEquipmentData()));
-        } catch (IOException e) {
-            emitter.completeWithError(e);
+    @GetMapping("/{id}/state-durations")
+    public ResponseEntity<EquipmentStateDurations> getStateDurations(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "SHIFT") EquipmentStateTracker.Period period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!equipmentRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
         }
-
-        // Schedule periodic updates every 2 seconds
-        scheduler.scheduleAtFixedRate(() -> {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name("equipment-data")
-                        .data(generateMockEquipmentData()));
-            } catch (IOException e) {
-                emitter.completeWithError(e);
+        if (from != null || to != null) {
+            if (from == null || to == null || !from.isBefore(to)) {
+                return ResponseEntity.badRequest().build();
             }
-        }, 2000, 2000, TimeUnit.MILLISECONDS);
+            return ResponseEntity.ok(equipmentStateTracker.getRange(id, from, to));
+        }
+        return ResponseEntity.ok(equipmentStateTracker.getCurrent(id, period));
+    }
 
-        return emitter;
+    /**
+     * Current shift or day status durations of every tracked equipment
+     */
+    @GetMapping("/state-durations")
+    public List<EquipmentStateDurations> getAllStateDurations(
+            @RequestParam(defaultValue = "SHIFT") EquipmentStateTracker.Period period) {
+        return equipmentStateTracker.getCurrentAll(period);
     }
 
-    private Map<String, Object> generateMockEquipmentData() {
-        return Map.of(
-                "temperature", 20 + Math.random() * 10,
-                "vibration", 0.5 + Math.random() * 2,
-                "pressure", 1.0 + Math.random() * 0.5
-        );
+    /**
+     * SSE endpoint for real-time equipment data, pushed as telemetry is saved
+     */
+    @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEquipmentData(@PathVariable Long id) {
+        return equipmentRepository.findById(id)
+                .map(equipment -> ResponseEntity.ok(equipmentStreamService.connect(equipment)))
+                .orElse(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,33 @@
 package com.mes.messystem.controller;
 
 import com.mes.messystem.domain.EquipmentData;
+import com.mes.messystem.domain.RollupResolution;
+import com.mes.messystem.dto.EquipmentDataBatchResponse;
+import com.mes.messystem.dto.EquipmentDataPage;
 import com.mes.messystem.dto.EquipmentDataRequest;
+import com.mes.messystem.dto.RecentTelemetry;
+import com.mes.messystem.dto.RetentionStatus;
+import com.mes.messystem.dto.TelemetryTrendResponse;
+import com.mes.messystem.dto.WriteBehindStatus;
+import com.mes.messystem.service.EquipmentDataRetentionService;
 import com.mes.messystem.service.EquipmentDataService;
+import com.mes.messystem.service.RecentTelemetryService;
+import com.mes.messystem.service.TelemetryBlockService;
+import com.mes.messystem.service.TelemetryRollupService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/equipment-data")
@@ -15,16 +35,131 @@ import java.util.List;
 public class EquipmentDataController {
 
     private final EquipmentDataService equipmentDataService;
+    private final TelemetryRollupService telemetryRollupService;
+    private final EquipmentDataRetentionService retentionService;
+    private final RecentTelemetryService recentTelemetryService;
+    private final TelemetryBlockService telemetryBlockService;
 
     @PostMapping
     public ResponseEntity<EquipmentData> receiveEquipmentData(@RequestBody EquipmentDataRequest request) {
         EquipmentData saved = equipmentDataService.saveEquipmentData(request);
-        return ResponseEntity.ok(saved);
+        // write-behind with ACCEPTED ack: queued but not yet committed
+        return equipmentDataService.isDeferredAck()
+                ? ResponseEntity.accepted().body(saved)
+                : ResponseEntity.ok(saved);
     }
 
+    /**
+     * Ingest many samples in one call; each sample is accepted or rejected on its own
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<EquipmentDataBatchResponse> receiveEquipmentDataBatch(
+            @RequestBody List<EquipmentDataRequest> requests) {
+        EquipmentDataBatchResponse response = equipmentDataService.saveEquipmentDataBatch(requests);
+        return equipmentDataService.isDeferredAck()
+                ? ResponseEntity.accepted().body(response)
+                : ResponseEntity.ok(response);
+    }
+
+    /**
+     * Equipment history, newest first, in pages of at most limit rows.
+     * Pass the returned nextCursor as cursor to continue.
+     */
     @GetMapping("/{equipmentId}")
-    public ResponseEntity<List<EquipmentData>> getEquipmentDataHistory(@PathVariable Long equipmentId) {
-        List<EquipmentData> data = equipmentDataService.getEquipmentDataHistory(equipmentId);
-        return ResponseEntity.ok(data);
+    public ResponseEntity<EquipmentDataPage> getEquipmentDataHistory(
+            @PathVariable Long equipmentId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "500") int limit,
+            @RequestParam(required = false) String cursor) {
+        EquipmentDataPage page = equipmentDataService.getEquipmentDataHistory(equipmentId, from, to, limit, cursor);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Recent samples from memory (default last 10 minutes), no database access
+     */
+    @GetMapping("/{equipmentId}/recent")
+    public ResponseEntity<RecentTelemetry> getRecent(@PathVariable Long equipmentId,
+                                                     @RequestParam(defaultValue = "600") long seconds) {
+        return ResponseEntity.ok(recentTelemetryService.getRecent(equipmentId, Duration.ofSeconds(seconds)));
+    }
+
+    /**
+     * Rolled-up trend (min / max / avg per bucket); defaults to the last 24 hours.
+     * The resolution is picked from the range and maxPoints unless given explicitly.
+     */
+    @GetMapping("/{equipmentId}/trend")
+    public ResponseEntity<TelemetryTrendResponse> getTrend(
+            @PathVariable Long equipmentId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "500") int maxPoints,
+            @RequestParam(required = false) RollupResolution resolution) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(24);
+        return ResponseEntity.ok(telemetryRollupService.getTrend(equipmentId, start, end, maxPoints, resolution));
+    }
+
+    /**
+     * Archived (compressed block) samples in [from, to), streamed as NDJSON while decoding
+     */
+    @GetMapping(value = "/{equipmentId}/archive", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> getArchived(
+            @PathVariable Long equipmentId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = output -> {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            telemetryBlockService.stream(equipmentId, from, to, (timestamp, status, temperature, speed) -> {
+                writer.write("{\"timestamp\":\"" + timestamp
+                        + "\",\"status\":" + (status != null ? "\"" + status + "\"" : "null")
+                        + ",\"temperature\":" + (Double.isNaN(temperature) ? "null" : temperature)
+                        + ",\"productionSpeed\":" + speed + "}\n");
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Recompute rollups for a time range from raw equipment_data
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        int buckets = telemetryRollupService.rebuild(from, to);
+        return ResponseEntity.ok(Map.of("from", from, "to", to, "buckets", buckets));
+    }
+
+    /**
+     * Write-behind queue depth and commit/drop counters
+     */
+    @GetMapping("/write-behind")
+    public ResponseEntity<WriteBehindStatus> getWriteBehindStatus() {
+        return ResponseEntity.ok(equipmentDataService.getWriteBehindStatus());
+    }
+
+    /**
+     * Retention progress and throughput
+     */
+    @GetMapping("/retention")
+    public ResponseEntity<RetentionStatus> getRetentionStatus() {
+        return ResponseEntity.ok(retentionService.getStatus());
+    }
+
+    /**
+     * Start a purge now; 409 when retention is disabled or a purge is already running
+     */
+    @PostMapping("/retention/run")
+    public ResponseEntity<RetentionStatus> runRetention() {
+        if (!retentionService.purgeAsync()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(retentionService.getStatus());
+        }
+        return ResponseEntity.accepted().body(retentionService.getStatus());
     }
 }
@@ -3,6 +3,7 @@ package com.mes.messystem.controller;
 import com.mes.messystem.domain.Product;
 import com.mes.messystem.dto.ProductRequest;
 import com.mes.messystem.repository.ProductRepository;
+import com.mes.messystem.service.DataVersionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +16,7 @@ import java.util.List;
 public class ProductController {
 
     private final ProductRepository productRepository;
+    private final DataVersionService dataVersionService;
 
     @GetMapping
     public List<Product> getAll() {
@@ -45,7 +47,10 @@ public class ProductController {
                     product.setName(request.getName());
                     product.setCode(request.getCode());
                     product.setDescription(request.getDescription());
-                    return ResponseEntity.ok(productRepository.save(product));
+                    Product saved = productRepository.save(product);
+                    // product names appear in defect rates and work progress
+                    dataVersionService.bump(DataVersionService.Domain.PRODUCTION, DataVersionService.Domain.WORK_ORDER);
+                    return ResponseEntity.ok(saved);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -54,6 +59,7 @@ public class ProductController {
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         if (productRepository.existsById(id)) {
             productRepository.deleteById(id);
+            dataVersionService.bump(DataVersionService.Domain.PRODUCTION, DataVersionService.Domain.WORK_ORDER);
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
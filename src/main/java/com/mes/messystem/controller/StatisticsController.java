@@ -1,14 +1,24 @@
 package com.mes.messystem.controller;
 
+import com.mes.messystem.dto.OeeSummary;
 import com.mes.messystem.dto.ProductionStatistics;
+import com.mes.messystem.service.DataVersionService;
+import com.mes.messystem.service.DataVersionService.Domain;
+import com.mes.messystem.service.OeeService;
 import com.mes.messystem.service.StatisticsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/statistics")
@@ -16,9 +26,40 @@ import org.springframework.web.bind.annotation.RestController;
 public class StatisticsController {
 
     private final StatisticsService statisticsService;
+    private final OeeService oeeService;
+    private final DataVersionService dataVersionService;
 
     @GetMapping("/production")
-    public ResponseEntity<ProductionStatistics> getProductionStatistics() {
-        return ResponseEntity.ok(statisticsService.getProductionStatistics());
+    public ResponseEntity<ProductionStatistics> getProductionStatistics(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // availability follows equipment state and elapsed time; the per-minute scope covers both
+        // (the EQUIPMENT version moves on every telemetry write and would defeat the cache)
+        String etag = dataVersionService.etag("statistics-" + LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES),
+                Domain.PRODUCTION, Domain.QUALITY);
+        return dataVersionService.conditional(ifNoneMatch, etag, statisticsService::getProductionStatistics);
+    }
+
+    /**
+     * Plant OEE for the current shift
+     */
+    @GetMapping("/oee")
+    public OeeSummary getPlantOee() {
+        return oeeService.getPlant();
+    }
+
+    /**
+     * OEE per line (equipment location) for the current shift
+     */
+    @GetMapping("/oee/lines")
+    public List<OeeSummary> getLineOee() {
+        return oeeService.getByLine();
+    }
+
+    /**
+     * OEE per equipment for the current shift
+     */
+    @GetMapping("/oee/equipment")
+    public List<OeeSummary> getEquipmentOee() {
+        return oeeService.getByEquipment();
     }
 }
@@ -1,13 +1,14 @@
 package com.mes.messystem.controller;
 
 import com.mes.messystem.dto.*;
-import com.mes.messystem.service.DashboardService;
+import com.mes.messystem.service.DashboardSnapshotService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Controller;
 
 @Slf4j
@@ -17,7 +18,7 @@ public class
 WebSocketNotificationController {
 
     private final SimpMessagingTemplate messagingTemplate;
-    private final DashboardService dashboardService;
+    private final DashboardSnapshotService dashboardSnapshotService;
 
     /**
      * Handle client request for dashboard data
@@ -28,18 +29,34 @@ WebSocketNotificationController {
     @SendTo("/topic/dashboard")
     public DashboardResponse handleDashboardRequest() {
         log.info("Dashboard data requested via WebSocket");
-        return dashboardService.getDashboardData();
+        DashboardSnapshot snapshot = dashboardSnapshotService.getLatest();
+        return snapshot != null ? snapshot.getData() : null;
+    }
+
+    @PostConstruct
+    public void subscribeToSnapshots() {
+        dashboardSnapshotService.subscribe(this::broadcastDashboardUpdate);
+    }
+
+    /**
+     * Full dashboard snapshot with its sequence number for delta subscribers
+     * Client subscribes to: /app/dashboard/snapshot (on connect and to resync)
+     */
+    @SubscribeMapping("/dashboard/snapshot")
+    public DashboardDelta handleDashboardSnapshot() {
+        DashboardSnapshot snapshot = dashboardSnapshotService.getLatest();
+        return snapshot != null ? dashboardSnapshotService.toFullDelta(snapshot) : null;
     }
 
     /**
-     * Broadcast dashboard updates every 3 seconds
-     * All clients subscribed to /topic/dashboard will receive updates
+     * Broadcast the shared dashboard snapshot whenever it changes
+     * All clients subscribed to /topic/dashboard will receive the full data,
+     * clients subscribed to /topic/dashboard/delta only the changes
      */
-    @Scheduled(fixedDelay = 3000)
-    public void broadcastDashboardUpdate() {
-        DashboardResponse data = dashboardService.getDashboardData();
-        messagingTemplate.convertAndSend("/topic/dashboard", data);
-        log.debug("Dashboard update broadcasted via WebSocket");
+    public void broadcastDashboardUpdate(DashboardSnapshot snapshot) {
+        messagingTemplate.convertAndSend("/topic/dashboard", snapshot.getData());
+        messagingTemplate.convertAndSend("/topic/dashboard/delta", snapshot.getDelta());
+        log.debug("Dashboard update v{} broadcasted via WebSocket", snapshot.getVersion());
     }
 
     /**
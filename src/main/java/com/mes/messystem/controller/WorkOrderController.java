@@ -5,6 +5,7 @@ import com.mes.messystem.domain.WorkOrder;
 import com.mes.messystem.dto.WorkOrderRequest;
 import com.mes.messystem.repository.ProductRepository;
 import com.mes.messystem.repository.WorkOrderRepository;
+import com.mes.messystem.service.DataVersionService;
 import com.mes.messystem.service.WorkOrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +23,7 @@ public class WorkOrderController {
     private final WorkOrderService workOrderService;
     private final ProductRepository productRepository;
     private final WorkOrderRepository workOrderRepository;
+    private final DataVersionService dataVersionService;
 
     @GetMapping
     public List<WorkOrder> getAll() {
@@ -61,7 +63,9 @@ public class WorkOrderController {
                     if (request.getPlannedEndDate() != null) {
                         workOrder.setPlannedEndDate(LocalDate.parse(request.getPlannedEndDate()));
                     }
-                    return ResponseEntity.ok(workOrderRepository.save(workOrder));
+                    WorkOrder saved = workOrderRepository.save(workOrder);
+                    dataVersionService.bump(DataVersionService.Domain.WORK_ORDER);
+                    return ResponseEntity.ok(saved);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -70,6 +74,7 @@ public class WorkOrderController {
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         if (workOrderRepository.existsById(id)) {
             workOrderRepository.deleteById(id);
+            dataVersionService.bump(DataVersionService.Domain.WORK_ORDER);
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
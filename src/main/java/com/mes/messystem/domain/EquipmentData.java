@@ -6,6 +6,7 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_equipment_data_equipment_ts", columnList = "equipment_id, timestamp"))
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
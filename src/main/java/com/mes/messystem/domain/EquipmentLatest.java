@@ -0,0 +1,29 @@
+package com.mes.messystem.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last known telemetry value per equipment
+ */
+@Entity
+@Table(name = "equipment_latest")
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EquipmentLatest {
+    @Id
+    private Long equipmentId;
+
+    @Enumerated(EnumType.STRING)
+    private EquipmentStatus status;
+
+    private Double temperature;
+
+    private Integer productionSpeed;
+
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,42 @@
+package com.mes.messystem.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-equipment telemetry aggregate for one bucket.
+ * Sums and counts are kept instead of averages so buckets can be merged additively.
+ */
+@Entity
+@Table(name = "equipment_rollup", uniqueConstraints = @UniqueConstraint(
+        name = "uk_equipment_rollup_bucket", columnNames = {"equipmentId", "resolution", "bucketStart"}))
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EquipmentRollup {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long equipmentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private RollupResolution resolution;
+
+    private LocalDateTime bucketStart;
+
+    private long sampleCount;
+
+    private long temperatureCount;   // samples with a temperature value
+    private Double temperatureMin;
+    private Double temperatureMax;
+    private double temperatureSum;
+
+    private long speedCount;         // samples with a productionSpeed value
+    private Integer speedMin;
+    private Integer speedMax;
+    private long speedSum;
+}
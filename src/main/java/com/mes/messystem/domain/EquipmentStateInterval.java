@@ -0,0 +1,31 @@
+package com.mes.messystem.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One RUN / IDLE / ALARM interval of an equipment; endedAt is null while open
+ */
+@Entity
+@Table(name = "equipment_state_interval",
+        indexes = @Index(name = "idx_state_interval_equipment_start", columnList = "equipmentId, startedAt"))
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EquipmentStateInterval {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long equipmentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private EquipmentStatus status;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime endedAt;
+}
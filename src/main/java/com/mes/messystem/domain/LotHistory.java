@@ -6,6 +6,7 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_lot_history_processed_at", columnList = "processedAt"))
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,34 @@
+package com.mes.messystem.domain;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Telemetry rollup bucket sizes, finest first
+ */
+public enum RollupResolution {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS);
+
+    private final ChronoUnit unit;
+
+    RollupResolution(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public LocalDateTime bucketStart(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(unit);
+    }
+
+    public Duration getBucketSize() {
+        return unit.getDuration();
+    }
+
+    /**
+     * Number of buckets touched by [from, to)
+     */
+    public long bucketCount(LocalDateTime from, LocalDateTime to) {
+        return unit.between(bucketStart(from), to) + 1;
+    }
+}
@@ -0,0 +1,37 @@
+package com.mes.messystem.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compressed archived telemetry of one equipment within one hour (see TelemetryBlockCodec).
+ * Retention archives whole hours, so an hour normally has one block; rows that arrive
+ * late for an already archived hour add a second one.
+ */
+@Entity
+@Table(name = "telemetry_block",
+        indexes = @Index(name = "idx_telemetry_block_equipment_start", columnList = "equipmentId, blockStart"))
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TelemetryBlock {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long equipmentId;
+
+    private LocalDateTime blockStart;       // hour bucket
+
+    private LocalDateTime firstTimestamp;
+
+    private LocalDateTime lastTimestamp;
+
+    private Integer sampleCount;
+
+    @Lob
+    @Column(length = 16777215)             // MEDIUMBLOB
+    private byte[] payload;
+}
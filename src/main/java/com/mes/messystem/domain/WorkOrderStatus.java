@@ -1,9 +1,29 @@
 package com.mes.messystem.domain;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum WorkOrderStatus {
     PLANNED,
     STARTED,
     IN_PROGRESS,
     COMPLETED,
-    REJECTED
+    REJECTED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == REJECTED;
+    }
+
+    /**
+     * Statuses of work orders that are still open
+     */
+    public static Set<WorkOrderStatus> nonTerminal() {
+        EnumSet<WorkOrderStatus> statuses = EnumSet.noneOf(WorkOrderStatus.class);
+        for (WorkOrderStatus status : values()) {
+            if (!status.isTerminal()) {
+                statuses.add(status);
+            }
+        }
+        return statuses;
+    }
 }
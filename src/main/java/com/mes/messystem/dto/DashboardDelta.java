@@ -0,0 +1,33 @@
+package com.mes.messystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Dashboard change set between two snapshot versions.
+ * A full message (full = true) carries every section; otherwise only changed
+ * sections and rows (keyed by equipmentId / workOrderId) are present.
+ * A client whose last sequence differs from baseSequence must resync.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DashboardDelta {
+    private long sequence;
+    private Long baseSequence;
+    private boolean full;
+    private TodayProductionStats todayProduction;
+    private List<ProductDefectRate> productDefectRates;
+    private List<EquipmentStatusSummary> equipmentStatuses;
+    private List<Long> removedEquipmentIds;
+    private List<WorkProgressInfo> workProgresses;
+    private List<Long> removedWorkOrderIds;
+    private List<String> staleSections;
+}
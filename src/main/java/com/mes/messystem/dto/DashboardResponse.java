@@ -16,4 +16,6 @@ public class DashboardResponse {
     private List<ProductDefectRate> productDefectRates;
     private List<EquipmentStatusSummary> equipmentStatuses;
     private List<WorkProgressInfo> workProgresses;
+    // sections served from their last good value because they missed the deadline
+    private List<String> staleSections;
 }
@@ -0,0 +1,19 @@
+package com.mes.messystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardSnapshot {
+    private long version;
+    private LocalDateTime generatedAt;
+    private DashboardResponse data;
+    private DashboardDelta delta;  // changes since version - 1
+}
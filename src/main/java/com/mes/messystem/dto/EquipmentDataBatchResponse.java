@@ -0,0 +1,32 @@
+package com.mes.messystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EquipmentDataBatchResponse {
+    private int accepted;
+    private int rejected;
+    private List<SampleResult> results;   // same order as the request array
+
+    public enum SampleStatus {
+        ACCEPTED,
+        REJECTED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SampleResult {
+        private int index;
+        private SampleStatus status;
+        private String reason;
+    }
+}
@@ -0,0 +1,23 @@
+package com.mes.messystem.dto;
+
+import com.mes.messystem.domain.EquipmentData;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of equipment history, newest first.
+ * Pass nextCursor back as cursor to read the following page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EquipmentDataPage {
+    private List<EquipmentData> items;
+    private String nextCursor;   // null on the last page
+    private boolean hasMore;
+}
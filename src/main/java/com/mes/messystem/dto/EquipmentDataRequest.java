@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,4 +17,5 @@ public class EquipmentDataRequest {
     private EquipmentStatus status;
     private Double temperature;
     private Integer productionSpeed;
+    private LocalDateTime timestamp;   // device timestamp; server time when absent
 }
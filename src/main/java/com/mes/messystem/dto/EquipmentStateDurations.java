@@ -0,0 +1,25 @@
+package com.mes.messystem.dto;
+
+import com.mes.messystem.domain.EquipmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EquipmentStateDurations {
+    private Long equipmentId;
+    private String period;                        // SHIFT, DAY or RANGE
+    private Integer shiftNumber;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Map<EquipmentStatus, Long> seconds;   // time spent in each status within [from, to)
+    private EquipmentStatus currentStatus;
+    private LocalDateTime currentSince;
+}
@@ -20,4 +20,11 @@ public class EquipmentStatusSummary {
     private Double temperature;
     private Integer productionSpeed;
     private LocalDateTime lastUpdated;
+
+    // EWMA anomaly scores (standard deviations); null while warming up
+    private Double temperatureZScore;
+    private Double temperatureDrift;
+    private Double speedZScore;
+    private Double speedDrift;
+    private Boolean anomalous;
 }
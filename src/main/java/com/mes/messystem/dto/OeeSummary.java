@@ -0,0 +1,32 @@
+package com.mes.messystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OeeSummary {
+    private String scope;              // EQUIPMENT, LINE or PLANT
+    private String key;                // equipment id, line (location) or "ALL"
+    private String name;
+
+    private Integer shiftNumber;
+    private LocalDateTime shiftStart;
+
+    private long runSeconds;           // time in RUN
+    private long trackedSeconds;       // time in any reported status
+    private long goodQty;
+    private long defectQty;
+    private double idealSeconds;       // standard time x processed quantity
+
+    private double availability;       // 가동률 (%)
+    private double performance;        // 성능률 (%)
+    private double quality;            // 품질률 (%)
+    private double oee;
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -20,11 +22,13 @@ public class ProductionStatistics {
     private Integer totalDefects;
     private Double overallDefectRate;
     
-    // OEE 관련
+    // OEE 관련 (현재 교대)
     private Double availability;      // 가동률
     private Double performance;       // 성능률
     private Double quality;          // 품질률
     private Double oee;              // Overall Equipment Effectiveness
+    private Integer oeeShiftNumber;
+    private LocalDateTime oeeShiftStart;
     
     // 품질 검사 통계
     private Integer totalInspections;
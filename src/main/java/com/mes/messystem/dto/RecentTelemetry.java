@@ -0,0 +1,23 @@
+package com.mes.messystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Recent samples as parallel arrays, oldest first.
+ * timestamps are epoch millis; missing temperature is NaN (serialized as "NaN"),
+ * missing speed is Integer.MIN_VALUE.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecentTelemetry {
+    private Long equipmentId;
+    private int capacity;
+    private long[] timestamps;
+    private double[] temperatures;
+    private int[] productionSpeeds;
+}
@@ -0,0 +1,30 @@
+package com.mes.messystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RetentionStatus {
+    private boolean enabled;
+    private boolean running;
+    private String currentType;           // equipment type being purged
+    private long currentChunkStartId;
+    private long lastExpiredId;           // purge of currentType ends here
+    private LocalDateTime lastRunStartedAt;
+    private LocalDateTime lastRunFinishedAt;
+    private long lastRunDeleted;
+    private long lastRunArchived;
+    private double lastRunRowsPerSecond;
+    private long totalDeleted;
+    private long totalArchived;
+    private Map<String, Integer> retentionDays;
+    private String lastError;
+}
@@ -0,0 +1,22 @@
+package com.mes.messystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SseHubMetrics {
+    private int connections;
+    private Map<String, Integer> connectionsByTopic;
+    private long eventsSent;
+    private long evictedConnections;
+    private int pendingSendTasks;      // connections waiting for a send thread
+    private double avgSendLatencyMs;   // enqueue -> written
+    private double maxSendLatencyMs;
+}
@@ -0,0 +1,23 @@
+package com.mes.messystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TelemetryTrendPoint {
+    private LocalDateTime bucketStart;
+    private long sampleCount;
+    private Double temperatureMin;
+    private Double temperatureMax;
+    private Double temperatureAvg;
+    private Integer productionSpeedMin;
+    private Integer productionSpeedMax;
+    private Double productionSpeedAvg;
+}
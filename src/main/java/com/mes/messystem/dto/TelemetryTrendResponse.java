@@ -0,0 +1,22 @@
+package com.mes.messystem.dto;
+
+import com.mes.messystem.domain.RollupResolution;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TelemetryTrendResponse {
+    private Long equipmentId;
+    private RollupResolution resolution;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<TelemetryTrendPoint> points;
+}
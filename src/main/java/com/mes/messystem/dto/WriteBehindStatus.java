@@ -0,0 +1,20 @@
+package com.mes.messystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WriteBehindStatus {
+    private boolean enabled;
+    private String ack;                   // ACCEPTED | DURABLE
+    private int capacity;
+    private int pendingRows;
+    private long committedRows;
+    private long droppedRows;             // rows lost to failed group commits
+    private long failedCommits;           // submissions rejected after the per-submission retry
+}
@@ -0,0 +1,162 @@
+package com.mes.messystem.ingest;
+
+import com.mes.messystem.dto.EquipmentDataRequest;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking TCP listener for {@link TelemetryFrame} streams from PLC gateways.
+ * One selector thread reads each connection into its own direct buffer and decodes
+ * complete frames in place; the frames from one read are handed to the sink as a batch.
+ * A partial frame stays in the buffer until the rest arrives.
+ */
+@Slf4j
+public class BinaryTelemetryListener implements Closeable {
+
+    private final int port;
+    private final int readBufferBytes;
+    private final Consumer<List<EquipmentDataRequest>> sink;
+
+    private Selector selector;
+    private ServerSocketChannel server;
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    public BinaryTelemetryListener(int port, int readBufferBytes, Consumer<List<EquipmentDataRequest>> sink) {
+        this.port = port;
+        // at least one whole frame must fit
+        this.readBufferBytes = Math.max(readBufferBytes, TelemetryFrame.SIZE);
+        this.sink = sink;
+    }
+
+    public void start() throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(port));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+
+        running = true;
+        selectorThread = new Thread(this::run, "telemetry-listener");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        log.info("Binary telemetry listener started on port {}", getLocalPort());
+    }
+
+    /**
+     * Bound port; useful when started on port 0
+     */
+    public int getLocalPort() {
+        return server.socket().getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (selector != null) {
+            selector.wakeup();
+        }
+        if (selectorThread != null) {
+            try {
+                selectorThread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                for (SelectionKey key : selector.selectedKeys()) {
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else if (key.isReadable()) {
+                            read(key);
+                        }
+                    } catch (IOException | CancelledKeyException e) {
+                        log.debug("Telemetry connection closed: {}", e.getMessage());
+                        closeQuietly(key);
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException e) {
+            log.error("Binary telemetry listener stopped", e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // shutting down
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        channel.register(selector, SelectionKey.OP_READ, ByteBuffer.allocateDirect(readBufferBytes));
+        log.info("Telemetry gateway connected: {}", channel.getRemoteAddress());
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        ByteBuffer buffer = (ByteBuffer) key.attachment();
+
+        int read = channel.read(buffer);
+        if (read < 0) {
+            log.info("Telemetry gateway disconnected: {}", channel.getRemoteAddress());
+            closeQuietly(key);
+            return;
+        }
+
+        buffer.flip();
+        int frames = buffer.remaining() / TelemetryFrame.SIZE;
+        if (frames > 0) {
+            List<EquipmentDataRequest> batch = new ArrayList<>(frames);
+            int offset = buffer.position();
+            for (int i = 0; i < frames; i++, offset += TelemetryFrame.SIZE) {
+                batch.add(TelemetryFrame.decode(buffer, offset));
+            }
+            buffer.position(offset);
+            deliver(batch);
+        }
+        // keep a trailing partial frame for the next read
+        buffer.compact();
+    }
+
+    private void deliver(List<EquipmentDataRequest> batch) {
+        try {
+            sink.accept(batch);
+        } catch (Exception e) {
+            log.warn("Telemetry batch of {} frames rejected: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void closeQuietly(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+            // already closed
+        }
+    }
+}
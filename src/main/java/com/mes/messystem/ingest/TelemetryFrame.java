@@ -0,0 +1,64 @@
+package com.mes.messystem.ingest;
+
+import com.mes.messystem.domain.EquipmentStatus;
+import com.mes.messystem.dto.EquipmentDataRequest;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Fixed-layout binary telemetry frame (big-endian, 29 bytes):
+ * <pre>
+ *   0  long    equipmentId
+ *   8  long    timestamp, epoch millis (0 = server time)
+ *  16  byte    status ordinal (EquipmentStatus)
+ *  17  double  temperature (NaN = absent)
+ *  25  int     productionSpeed (Integer.MIN_VALUE = absent)
+ * </pre>
+ */
+public final class TelemetryFrame {
+
+    public static final int SIZE = 29;
+
+    private static final EquipmentStatus[] STATUSES = EquipmentStatus.values();
+
+    private TelemetryFrame() {
+    }
+
+    /**
+     * Read one frame at the given absolute offset without moving the buffer position
+     */
+    public static EquipmentDataRequest decode(ByteBuffer buffer, int offset) {
+        long equipmentId = buffer.getLong(offset);
+        long epochMillis = buffer.getLong(offset + 8);
+        int ordinal = buffer.get(offset + 16);
+        double temperature = buffer.getDouble(offset + 17);
+        int speed = buffer.getInt(offset + 25);
+
+        return EquipmentDataRequest.builder()
+                .equipmentId(equipmentId)
+                .timestamp(epochMillis != 0
+                        ? LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault())
+                        : null)
+                // unknown ordinals leave status null; the pipeline rejects the sample
+                .status(ordinal >= 0 && ordinal < STATUSES.length ? STATUSES[ordinal] : null)
+                .temperature(Double.isNaN(temperature) ? null : temperature)
+                .productionSpeed(speed != Integer.MIN_VALUE ? speed : null)
+                .build();
+    }
+
+    /**
+     * Append one frame at the buffer's position
+     */
+    public static void encode(ByteBuffer buffer, EquipmentDataRequest request) {
+        buffer.putLong(request.getEquipmentId());
+        buffer.putLong(request.getTimestamp() != null
+                ? request.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : 0L);
+        buffer.put(request.getStatus() != null ? (byte) request.getStatus().ordinal() : (byte) -1);
+        buffer.putDouble(request.getTemperature() != null ? request.getTemperature() : Double.NaN);
+        buffer.putInt(request.getProductionSpeed() != null ? request.getProductionSpeed() : Integer.MIN_VALUE);
+    }
+}
@@ -0,0 +1,48 @@
+package com.mes.messystem.repository;
+
+import com.mes.messystem.domain.EquipmentData;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Multi-row telemetry inserts through JDBC batching.
+ * With rewriteBatchedStatements=true the MySQL driver sends each batch as one
+ * multi-value INSERT, so ids stay AUTO_INCREMENT and are not read back.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EquipmentDataBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO equipment_data (equipment_id, status, temperature, production_speed, timestamp) "
+                    + "VALUES (?, ?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<EquipmentData> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setLong(1, row.getEquipment().getId());
+            ps.setString(2, row.getStatus() != null ? row.getStatus().name() : null);
+            if (row.getTemperature() != null) {
+                ps.setDouble(3, row.getTemperature());
+            } else {
+                ps.setNull(3, Types.DOUBLE);
+            }
+            if (row.getProductionSpeed() != null) {
+                ps.setInt(4, row.getProductionSpeed());
+            } else {
+                ps.setNull(4, Types.INTEGER);
+            }
+            ps.setObject(5, row.getTimestamp());
+        });
+    }
+}
@@ -0,0 +1,118 @@
+package com.mes.messystem.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Id-range reads and deletes on equipment_data for retention.
+ * Every statement is bounded to one id range, so row locks stay short and far
+ * below the AUTO_INCREMENT range that ingest is inserting into.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EquipmentDataPurgeRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * [min id, max id] of expired rows, or null when nothing is expired
+     */
+    public long[] findExpiredIdRange(Collection<Long> equipmentIds, LocalDateTime cutoff) {
+        return jdbcTemplate.query(
+                "SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM equipment_data "
+                        + "WHERE equipment_id IN (:equipmentIds) AND timestamp < :cutoff",
+                params(equipmentIds, cutoff),
+                rs -> {
+                    rs.next();
+                    long min = rs.getLong("min_id");
+                    return rs.wasNull() ? null : new long[]{min, rs.getLong("max_id")};
+                });
+    }
+
+    public List<RawRow> findExpired(Collection<Long> equipmentIds, LocalDateTime cutoff, long fromId, long toId) {
+        return jdbcTemplate.query(
+                "SELECT id, equipment_id, status, temperature, production_speed, timestamp FROM equipment_data "
+                        + "WHERE id >= :fromId AND id < :toId "
+                        + "AND equipment_id IN (:equipmentIds) AND timestamp < :cutoff ORDER BY id",
+                params(equipmentIds, cutoff).addValue("fromId", fromId).addValue("toId", toId),
+                (rs, rowNum) -> new RawRow(
+                        rs.getLong("id"),
+                        rs.getLong("equipment_id"),
+                        rs.getString("status"),
+                        rs.getObject("temperature", Double.class),
+                        rs.getObject("production_speed", Integer.class),
+                        rs.getObject("timestamp", LocalDateTime.class)));
+    }
+
+    public int deleteExpired(Collection<Long> equipmentIds, LocalDateTime cutoff, long fromId, long toId) {
+        return jdbcTemplate.update(
+                "DELETE FROM equipment_data WHERE id >= :fromId AND id < :toId "
+                        + "AND equipment_id IN (:equipmentIds) AND timestamp < :cutoff",
+                params(equipmentIds, cutoff).addValue("fromId", fromId).addValue("toId", toId));
+    }
+
+    /**
+     * Oldest timestamp of one equipment before cutoff, or null when there is none
+     */
+    public LocalDateTime findOldestTimestamp(long equipmentId, LocalDateTime cutoff) {
+        return jdbcTemplate.queryForObject(
+                "SELECT MIN(timestamp) FROM equipment_data WHERE equipment_id = :equipmentId AND timestamp < :cutoff",
+                new MapSqlParameterSource()
+                        .addValue("equipmentId", equipmentId)
+                        .addValue("cutoff", cutoff),
+                LocalDateTime.class);
+    }
+
+    /**
+     * Rows of one equipment in [from, to), in timestamp order
+     */
+    public List<RawRow> findBetween(long equipmentId, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(
+                "SELECT id, equipment_id, status, temperature, production_speed, timestamp FROM equipment_data "
+                        + "WHERE equipment_id = :equipmentId AND timestamp >= :from AND timestamp < :to "
+                        + "ORDER BY timestamp, id",
+                new MapSqlParameterSource()
+                        .addValue("equipmentId", equipmentId)
+                        .addValue("from", from)
+                        .addValue("to", to),
+                (rs, rowNum) -> new RawRow(
+                        rs.getLong("id"),
+                        rs.getLong("equipment_id"),
+                        rs.getString("status"),
+                        rs.getObject("temperature", Double.class),
+                        rs.getObject("production_speed", Integer.class),
+                        rs.getObject("timestamp", LocalDateTime.class)));
+    }
+
+    /**
+     * Delete rows of one equipment in [from, to) up to maxId; later inserts are left for the next pass
+     */
+    public int deleteBetween(long equipmentId, LocalDateTime from, LocalDateTime to, long maxId) {
+        return jdbcTemplate.update(
+                "DELETE FROM equipment_data WHERE equipment_id = :equipmentId "
+                        + "AND timestamp >= :from AND timestamp < :to AND id <= :maxId",
+                new MapSqlParameterSource()
+                        .addValue("equipmentId", equipmentId)
+                        .addValue("from", from)
+                        .addValue("to", to)
+                        .addValue("maxId", maxId));
+    }
+
+    private MapSqlParameterSource params(Collection<Long> equipmentIds, LocalDateTime cutoff) {
+        return new MapSqlParameterSource()
+                .addValue("equipmentIds", equipmentIds)
+                .addValue("cutoff", cutoff);
+    }
+
+    /**
+     * One equipment_data row as stored
+     */
+    public record RawRow(long id, long equipmentId, String status, Double temperature,
+                         Integer productionSpeed, LocalDateTime timestamp) {}
+}
@@ -1,10 +1,29 @@
 package com.mes.messystem.repository;
 
 import com.mes.messystem.domain.EquipmentData;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface EquipmentDataRepository extends JpaRepository<EquipmentData, Long> {
-    List<EquipmentData> findByEquipmentIdOrderByTimestampDesc(Long equipmentId);
+    Optional<EquipmentData> findFirstByEquipmentIdOrderByTimestampDesc(Long equipmentId);
+
+    @Query("SELECT d FROM EquipmentData d JOIN FETCH d.equipment e WHERE e.id = :equipmentId " +
+            "AND d.timestamp >= :from AND d.timestamp < :to " +
+            "ORDER BY d.timestamp DESC, d.id DESC")
+    List<EquipmentData> findPage(Long equipmentId, LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    /**
+     * Keyset page: rows strictly older than (cursorTimestamp, cursorId)
+     */
+    @Query("SELECT d FROM EquipmentData d JOIN FETCH d.equipment e WHERE e.id = :equipmentId " +
+            "AND d.timestamp >= :from AND d.timestamp < :to " +
+            "AND (d.timestamp < :cursorTimestamp OR (d.timestamp = :cursorTimestamp AND d.id < :cursorId)) " +
+            "ORDER BY d.timestamp DESC, d.id DESC")
+    List<EquipmentData> findPageAfter(Long equipmentId, LocalDateTime from, LocalDateTime to,
+                                      LocalDateTime cursorTimestamp, Long cursorId, Pageable pageable);
 }
@@ -0,0 +1,7 @@
+package com.mes.messystem.repository;
+
+import com.mes.messystem.domain.EquipmentLatest;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EquipmentLatestRepository extends JpaRepository<EquipmentLatest, Long> {
+}
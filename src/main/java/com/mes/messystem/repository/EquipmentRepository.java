@@ -3,5 +3,8 @@ package com.mes.messystem.repository;
 import com.mes.messystem.domain.Equipment;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 public interface EquipmentRepository extends JpaRepository<Equipment, Long> {
+    List<Equipment> findByNameStartingWith(String prefix);
 }
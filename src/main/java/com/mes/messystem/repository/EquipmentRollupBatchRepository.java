@@ -0,0 +1,92 @@
+package com.mes.messystem.repository;
+
+import com.mes.messystem.domain.EquipmentRollup;
+import com.mes.messystem.domain.RollupResolution;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Additive upserts into equipment_rollup and rebuilds from raw equipment_data
+ */
+@Repository
+@RequiredArgsConstructor
+public class EquipmentRollupBatchRepository {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO equipment_rollup (equipment_id, resolution, bucket_start, sample_count, "
+                    + "temperature_count, temperature_min, temperature_max, temperature_sum, "
+                    + "speed_count, speed_min, speed_max, speed_sum) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE "
+                    + "sample_count = sample_count + VALUES(sample_count), "
+                    + "temperature_count = temperature_count + VALUES(temperature_count), "
+                    + "temperature_min = LEAST(COALESCE(temperature_min, VALUES(temperature_min)), COALESCE(VALUES(temperature_min), temperature_min)), "
+                    + "temperature_max = GREATEST(COALESCE(temperature_max, VALUES(temperature_max)), COALESCE(VALUES(temperature_max), temperature_max)), "
+                    + "temperature_sum = temperature_sum + VALUES(temperature_sum), "
+                    + "speed_count = speed_count + VALUES(speed_count), "
+                    + "speed_min = LEAST(COALESCE(speed_min, VALUES(speed_min)), COALESCE(VALUES(speed_min), speed_min)), "
+                    + "speed_max = GREATEST(COALESCE(speed_max, VALUES(speed_max)), COALESCE(VALUES(speed_max), speed_max)), "
+                    + "speed_sum = speed_sum + VALUES(speed_sum)";
+
+    private static final String DELETE_RANGE_SQL =
+            "DELETE FROM equipment_rollup WHERE resolution = ? AND bucket_start >= ? AND bucket_start < ?";
+
+    private static final String REBUILD_SQL =
+            "INSERT INTO equipment_rollup (equipment_id, resolution, bucket_start, sample_count, "
+                    + "temperature_count, temperature_min, temperature_max, temperature_sum, "
+                    + "speed_count, speed_min, speed_max, speed_sum) "
+                    + "SELECT equipment_id, ?, bucket, COUNT(*), "
+                    + "COUNT(temperature), MIN(temperature), MAX(temperature), COALESCE(SUM(temperature), 0), "
+                    + "COUNT(production_speed), MIN(production_speed), MAX(production_speed), COALESCE(SUM(production_speed), 0) "
+                    + "FROM (SELECT equipment_id, temperature, production_speed, "
+                    + "CAST(DATE_FORMAT(timestamp, ?) AS DATETIME) AS bucket "
+                    + "FROM equipment_data WHERE timestamp >= ? AND timestamp < ?) raw "
+                    + "GROUP BY equipment_id, bucket";
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void upsertAll(List<EquipmentRollup> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setLong(1, row.getEquipmentId());
+            ps.setString(2, row.getResolution().name());
+            ps.setObject(3, row.getBucketStart());
+            ps.setLong(4, row.getSampleCount());
+            ps.setLong(5, row.getTemperatureCount());
+            ps.setObject(6, row.getTemperatureMin(), Types.DOUBLE);
+            ps.setObject(7, row.getTemperatureMax(), Types.DOUBLE);
+            ps.setDouble(8, row.getTemperatureSum());
+            ps.setLong(9, row.getSpeedCount());
+            ps.setObject(10, row.getSpeedMin(), Types.INTEGER);
+            ps.setObject(11, row.getSpeedMax(), Types.INTEGER);
+            ps.setLong(12, row.getSpeedSum());
+        });
+    }
+
+    /**
+     * Replace the buckets in [from, to) with aggregates recomputed from raw rows.
+     * from and to should be aligned to the resolution's bucket size.
+     * @return number of buckets written
+     */
+    public int rebuild(RollupResolution resolution, LocalDateTime from, LocalDateTime to) {
+        jdbcTemplate.update(DELETE_RANGE_SQL, resolution.name(), from, to);
+        return jdbcTemplate.update(REBUILD_SQL, resolution.name(), bucketFormat(resolution), from, to);
+    }
+
+    private String bucketFormat(RollupResolution resolution) {
+        return switch (resolution) {
+            case MINUTE -> "%Y-%m-%d %H:%i:00";
+            case HOUR -> "%Y-%m-%d %H:00:00";
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.mes.messystem.repository;
+
+import com.mes.messystem.domain.EquipmentRollup;
+import com.mes.messystem.domain.RollupResolution;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EquipmentRollupRepository extends JpaRepository<EquipmentRollup, Long> {
+    List<EquipmentRollup> findByEquipmentIdAndResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+            Long equipmentId, RollupResolution resolution, LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,35 @@
+package com.mes.messystem.repository;
+
+import com.mes.messystem.domain.EquipmentStateInterval;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EquipmentStateIntervalRepository extends JpaRepository<EquipmentStateInterval, Long> {
+    List<EquipmentStateInterval> findByEndedAtIsNull();
+
+    /**
+     * Intervals of one equipment overlapping [from, to)
+     */
+    @Query("SELECT i FROM EquipmentStateInterval i WHERE i.equipmentId = :equipmentId " +
+            "AND i.startedAt < :to AND (i.endedAt IS NULL OR i.endedAt > :from) ORDER BY i.startedAt")
+    List<EquipmentStateInterval> findOverlapping(Long equipmentId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Intervals of every equipment overlapping [from, to)
+     */
+    @Query("SELECT i FROM EquipmentStateInterval i " +
+            "WHERE i.startedAt < :to AND (i.endedAt IS NULL OR i.endedAt > :from) ORDER BY i.startedAt")
+    List<EquipmentStateInterval> findAllOverlapping(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Close whatever interval of the equipment is still open
+     */
+    @Modifying
+    @Query("UPDATE EquipmentStateInterval i SET i.endedAt = :endedAt " +
+            "WHERE i.equipmentId = :equipmentId AND i.endedAt IS NULL")
+    int closeOpen(Long equipmentId, LocalDateTime endedAt);
+}
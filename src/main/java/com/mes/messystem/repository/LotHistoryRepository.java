@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -19,4 +20,73 @@ public interface LotHistoryRepository extends JpaRepository<LotHistory, Long> {
     
     @Query("SELECT lh FROM LotHistory lh WHERE lh.lot.lotNumber = :lotNumber ORDER BY lh.processedAt ASC")
     List<LotHistory> findByLotNumberOrderByProcessedAt(String lotNumber);
+
+    /**
+     * Per-history quantities; ids let a rebuild tell which histories it saw
+     */
+    @Query("SELECT lh.id AS id, lh.outputQuantity AS outputQuantity, lh.defectQuantity AS defectQuantity " +
+            "FROM LotHistory lh WHERE lh.processedAt >= :start AND lh.processedAt < :end")
+    List<HistoryQuantity> findQuantitiesBetween(LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT COALESCE(SUM(lh.outputQuantity), 0) AS outputQuantity, " +
+            "COALESCE(SUM(lh.defectQuantity), 0) AS defectQuantity FROM LotHistory lh")
+    QuantityTotals sumQuantities();
+
+    /**
+     * Per-history quantities with their routing keys; ids let a rebuild tell which histories it saw
+     */
+    @Query("SELECT lh.id AS id, lh.equipment.id AS equipmentId, l.product.id AS productId, " +
+            "lh.process.id AS processId, lh.outputQuantity AS outputQuantity, lh.defectQuantity AS defectQuantity " +
+            "FROM LotHistory lh JOIN lh.lot l " +
+            "WHERE lh.equipment IS NOT NULL AND lh.processedAt >= :start AND lh.processedAt < :end")
+    List<RoutingHistoryQuantity> findRoutingQuantitiesBetween(LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT p.id AS productId, p.name AS productName, " +
+            "COALESCE(SUM(lh.outputQuantity), 0) AS outputQuantity, " +
+            "COALESCE(SUM(lh.defectQuantity), 0) AS defectQuantity " +
+            "FROM LotHistory lh JOIN lh.lot l JOIN l.product p " +
+            "GROUP BY p.id, p.name")
+    List<ProductQuantityTotals> sumQuantitiesByProduct();
+
+    @Query("SELECT p.id AS productId, p.name AS productName, " +
+            "COALESCE(SUM(lh.outputQuantity), 0) AS outputQuantity, " +
+            "COALESCE(SUM(lh.defectQuantity), 0) AS defectQuantity " +
+            "FROM LotHistory lh JOIN lh.lot l JOIN l.product p " +
+            "WHERE lh.processedAt >= :start AND lh.processedAt < :end " +
+            "GROUP BY p.id, p.name")
+    List<ProductQuantityTotals> sumQuantitiesByProductBetween(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * 산출/불량 수량 합계 projection
+     */
+    interface QuantityTotals {
+        Long getOutputQuantity();
+        Long getDefectQuantity();
+    }
+
+    /**
+     * 제품별 산출/불량 수량 합계 projection
+     */
+    interface ProductQuantityTotals extends QuantityTotals {
+        Long getProductId();
+        String getProductName();
+    }
+
+    /**
+     * 이력 1건의 산출/불량 수량 projection
+     */
+    interface HistoryQuantity {
+        Long getId();
+        Integer getOutputQuantity();
+        Integer getDefectQuantity();
+    }
+
+    /**
+     * 이력 1건의 설비/제품/공정별 산출/불량 수량 projection
+     */
+    interface RoutingHistoryQuantity extends HistoryQuantity {
+        Long getEquipmentId();
+        Long getProductId();
+        Long getProcessId();
+    }
 }
@@ -2,11 +2,13 @@ package com.mes.messystem.repository;
 
 import com.mes.messystem.domain.Lot;
 import com.mes.messystem.domain.LotStatus;
+import com.mes.messystem.domain.WorkOrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +21,8 @@ public interface LotRepository extends JpaRepository<Lot, Long> {
     List<Lot> findByWorkOrderId(Long workOrderId);
     
     List<Lot> findByStatus(LotStatus status);
+
+    long countByStatus(LotStatus status);
     
     List<Lot> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
     
@@ -27,4 +31,21 @@ public interface LotRepository extends JpaRepository<Lot, Long> {
     
     @Query("SELECT COUNT(l) FROM Lot l WHERE l.createdAt >= :date")
     Long countByCreatedAtAfter(LocalDateTime date);
+
+    @Query("SELECT l.workOrder.id AS workOrderId, l.status AS status, COUNT(l) AS lotCount " +
+            "FROM Lot l WHERE l.workOrder IS NOT NULL GROUP BY l.workOrder.id, l.status")
+    List<WorkOrderLotCount> countGroupedByWorkOrderAndStatus();
+
+    @Query("SELECT l.workOrder.id AS workOrderId, l.status AS status, COUNT(l) AS lotCount " +
+            "FROM Lot l WHERE l.workOrder.status IN :workOrderStatuses GROUP BY l.workOrder.id, l.status")
+    List<WorkOrderLotCount> countGroupedByWorkOrderAndStatus(Collection<WorkOrderStatus> workOrderStatuses);
+
+    /**
+     * 작업 오더/LOT 상태별 LOT 수 projection
+     */
+    interface WorkOrderLotCount {
+        Long getWorkOrderId();
+        LotStatus getStatus();
+        Long getLotCount();
+    }
 }
@@ -23,6 +23,8 @@ public interface QualityInspectionRepository extends JpaRepository<QualityInspec
     List<QualityInspection> findByType(InspectionType type);
     
     List<QualityInspection> findByResult(InspectionResult result);
+
+    long countByResult(InspectionResult result);
     
     List<QualityInspection> findByInspectionDateBetween(LocalDateTime start, LocalDateTime end);
     
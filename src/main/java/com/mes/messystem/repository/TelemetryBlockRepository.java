@@ -0,0 +1,22 @@
+package com.mes.messystem.repository;
+
+import com.mes.messystem.domain.TelemetryBlock;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public interface TelemetryBlockRepository extends JpaRepository<TelemetryBlock, Long> {
+
+    /**
+     * Blocks of one equipment with samples in [from, to), oldest first.
+     * Fetch size MIN_VALUE makes MySQL stream rows instead of buffering the result.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+    @Query("SELECT b FROM TelemetryBlock b WHERE b.equipmentId = :equipmentId " +
+            "AND b.firstTimestamp < :to AND b.lastTimestamp >= :from ORDER BY b.blockStart, b.firstTimestamp")
+    Stream<TelemetryBlock> streamOverlapping(Long equipmentId, LocalDateTime from, LocalDateTime to);
+}
@@ -1,7 +1,17 @@
 package com.mes.messystem.repository;
 
 import com.mes.messystem.domain.WorkOrder;
+import com.mes.messystem.domain.WorkOrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface WorkOrderRepository extends JpaRepository<WorkOrder, Long> {
+    @Query("SELECT wo FROM WorkOrder wo JOIN FETCH wo.product")
+    List<WorkOrder> findAllWithProduct();
+
+    @Query("SELECT wo FROM WorkOrder wo JOIN FETCH wo.product WHERE wo.status IN :statuses")
+    List<WorkOrder> findByStatusInWithProduct(Collection<WorkOrderStatus> statuses);
 }
@@ -0,0 +1,202 @@
+package com.mes.messystem.service;
+
+import com.mes.messystem.config.AlarmRuleProperties;
+import com.mes.messystem.config.AlarmRuleProperties.Direction;
+import com.mes.messystem.config.AlarmRuleProperties.Rule;
+import com.mes.messystem.controller.WebSocketNotificationController;
+import com.mes.messystem.domain.Equipment;
+import com.mes.messystem.domain.EquipmentData;
+import com.mes.messystem.domain.EquipmentStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 설비 알람 룰 엔진.
+ * Rules are evaluated per committed sample with fixed per-rule state (active flag,
+ * condition start, last fire time, previous value), so each sample costs O(rules).
+ * Alerts are edge-triggered: a rule fires when it becomes active, stays quiet while
+ * active, and re-arms only after the value crosses back past its clear threshold.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AlarmRuleEngine {
+
+    private final AlarmRuleProperties properties;
+    private final WebSocketNotificationController webSocketNotificationController;
+
+    private final Map<Long, EquipmentState> states = new ConcurrentHashMap<>();
+
+    /**
+     * Evaluate samples once the surrounding transaction commits
+     */
+    public void process(List<EquipmentData> samples) {
+        TransactionCallbacks.afterCommit(() -> samples.forEach(this::evaluate));
+    }
+
+    private void evaluate(EquipmentData data) {
+        Equipment equipment = data.getEquipment();
+        if (equipment == null || data.getTimestamp() == null) {
+            return;
+        }
+
+        List<Rule> rules = properties.rulesFor(equipment.getType());
+        EquipmentState state = states.computeIfAbsent(equipment.getId(), id -> new EquipmentState(rules.size()));
+        long now = data.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        synchronized (state) {
+            // late samples would corrupt rates and sustain windows
+            if (now < state.lastTimestamp) {
+                return;
+            }
+
+            evaluateStatus(equipment, data.getStatus(), now, state);
+            for (int i = 0; i < rules.size() && i < state.active.length; i++) {
+                Double value = valueOf(rules.get(i), data);
+                if (value != null) {
+                    evaluateRule(equipment, rules.get(i), i, value, now, state);
+                }
+            }
+
+            if (data.getTemperature() != null) {
+                state.lastTemperature = data.getTemperature();
+                state.lastTemperatureAt = now;
+            }
+            if (data.getProductionSpeed() != null) {
+                state.lastSpeed = data.getProductionSpeed();
+                state.lastSpeedAt = now;
+            }
+            state.lastTimestamp = now;
+        }
+    }
+
+    /**
+     * Alert on the transition into ALARM, not on every ALARM sample
+     */
+    private void evaluateStatus(Equipment equipment, EquipmentStatus status, long now, EquipmentState state) {
+        if (status == null) {
+            return;
+        }
+        boolean entered = status == EquipmentStatus.ALARM && state.lastStatus != EquipmentStatus.ALARM;
+        state.lastStatus = status;
+
+        if (entered && now - state.lastStatusAlertAt >= properties.getStatusCooldownSeconds() * 1000) {
+            state.lastStatusAlertAt = now;
+            alert("Equipment " + equipment.getName() + " is in ALARM state!", "WARNING");
+        }
+    }
+
+    private void evaluateRule(Equipment equipment, Rule rule, int index, double value, long now, EquipmentState state) {
+        double measured = value;
+        if (rule.getType() == AlarmRuleProperties.RuleType.RATE_OF_CHANGE) {
+            long previousAt = rule.getMetric() == AlarmRuleProperties.Metric.TEMPERATURE
+                    ? state.lastTemperatureAt : state.lastSpeedAt;
+            double previous = rule.getMetric() == AlarmRuleProperties.Metric.TEMPERATURE
+                    ? state.lastTemperature : state.lastSpeed;
+            if (previousAt == 0 || now <= previousAt) {
+                return;
+            }
+            // BELOW means falling faster than threshold per second
+            measured = (value - previous) * 1000.0 / (now - previousAt);
+            if (rule.getDirection() == Direction.BELOW) {
+                measured = -measured;
+            }
+        }
+
+        boolean breached = rule.getType() == AlarmRuleProperties.RuleType.RATE_OF_CHANGE
+                ? measured > rule.getThreshold()
+                : beyond(rule.getDirection(), measured, rule.getThreshold());
+        boolean cleared = rule.getType() == AlarmRuleProperties.RuleType.RATE_OF_CHANGE
+                ? measured <= rule.effectiveClearThreshold()
+                : !beyond(rule.getDirection(), measured, rule.effectiveClearThreshold());
+
+        if (cleared) {
+            state.active[index] = false;
+            state.conditionSince[index] = 0;
+            return;
+        }
+        if (!breached) {
+            // inside the hysteresis band: a sustain window must restart on the next breach
+            state.conditionSince[index] = 0;
+            return;
+        }
+        if (state.active[index]) {
+            return;
+        }
+
+        if (rule.getType() == AlarmRuleProperties.RuleType.SUSTAINED) {
+            if (state.conditionSince[index] == 0) {
+                state.conditionSince[index] = now;
+            }
+            if (now - state.conditionSince[index] < rule.getSustainSeconds() * 1000) {
+                return;
+            }
+        }
+
+        state.active[index] = true;
+        if (now - state.lastFiredAt[index] >= rule.getCooldownSeconds() * 1000) {
+            state.lastFiredAt[index] = now;
+            alert(String.format("Equipment %s: %s (%s %.2f)",
+                    equipment.getName(), rule.getName(), describe(rule), measured), rule.getSeverity());
+        }
+    }
+
+    private boolean beyond(Direction direction, double value, double threshold) {
+        return direction == Direction.ABOVE ? value > threshold : value < threshold;
+    }
+
+    private Double valueOf(Rule rule, EquipmentData data) {
+        return switch (rule.getMetric()) {
+            case TEMPERATURE -> data.getTemperature();
+            case PRODUCTION_SPEED -> data.getProductionSpeed() != null ? data.getProductionSpeed().doubleValue() : null;
+        };
+    }
+
+    private String describe(Rule rule) {
+        String metric = rule.getMetric() == AlarmRuleProperties.Metric.TEMPERATURE ? "temperature" : "productionSpeed";
+        return switch (rule.getType()) {
+            case THRESHOLD -> metric + " " + rule.getDirection().name().toLowerCase() + " " + rule.getThreshold();
+            case RATE_OF_CHANGE -> metric + " changing faster than " + rule.getThreshold() + "/s";
+            case SUSTAINED -> metric + " " + rule.getDirection().name().toLowerCase() + " " + rule.getThreshold()
+                    + " for " + rule.getSustainSeconds() + "s";
+        };
+    }
+
+    private void alert(String message, String severity) {
+        try {
+            webSocketNotificationController.broadcastAlert(message, severity);
+        } catch (Exception e) {
+            log.warn("Alert broadcast failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Fixed-size rule state for one equipment
+     */
+    private static final class EquipmentState {
+        private final boolean[] active;
+        private final long[] conditionSince;
+        private final long[] lastFiredAt;
+        private long lastTimestamp;
+        private EquipmentStatus lastStatus;
+        private long lastStatusAlertAt = Long.MIN_VALUE / 2;
+        private double lastTemperature;
+        private long lastTemperatureAt;
+        private double lastSpeed;
+        private long lastSpeedAt;
+
+        private EquipmentState(int rules) {
+            this.active = new boolean[rules];
+            this.conditionSince = new long[rules];
+            this.lastFiredAt = new long[rules];
+            Arrays.fill(lastFiredAt, Long.MIN_VALUE / 2);
+        }
+    }
+}
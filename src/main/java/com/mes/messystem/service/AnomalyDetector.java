@@ -0,0 +1,170 @@
+package com.mes.messystem.service;
+
+import com.mes.messystem.config.AnomalyProperties;
+import com.mes.messystem.controller.WebSocketNotificationController;
+import com.mes.messystem.domain.Equipment;
+import com.mes.messystem.domain.EquipmentData;
+import com.mes.messystem.domain.EquipmentStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 설비 이상 징후 조기 감지.
+ * Keeps EWMA mean / variance of temperature and production speed per equipment and
+ * scores every committed sample: a z-score against the running statistics, and drift
+ * of the fast mean away from a slow baseline. Alerts are edge-triggered with hysteresis,
+ * like AlarmRuleEngine. Speed is scored only while running, since IDLE / ALARM speeds
+ * are expected to collapse.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnomalyDetector {
+
+    private static final int TEMPERATURE_Z = 0;
+    private static final int TEMPERATURE_DRIFT = 1;
+    private static final int SPEED_Z = 2;
+    private static final int SPEED_DRIFT = 3;
+
+    private final AnomalyProperties properties;
+    private final WebSocketNotificationController webSocketNotificationController;
+
+    private final Map<Long, State> states = new ConcurrentHashMap<>();
+
+    /**
+     * Latest scores of one equipment; anomalous when any detector is active
+     */
+    public record Scores(double temperatureZScore, double temperatureDrift,
+                         double speedZScore, double speedDrift, boolean anomalous) {}
+
+    /**
+     * Score samples once the surrounding transaction commits
+     */
+    public void process(List<EquipmentData> samples) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> samples.forEach(this::score));
+    }
+
+    /**
+     * Latest scores, or null while the equipment is unseen or warming up
+     */
+    public Scores getScores(Long equipmentId) {
+        State state = states.get(equipmentId);
+        if (state == null) {
+            return null;
+        }
+        synchronized (state) {
+            if (state.temperature.count() < properties.getWarmupSamples()
+                    && state.speed.count() < properties.getWarmupSamples()) {
+                return null;
+            }
+            return new Scores(round(state.scores[TEMPERATURE_Z]), round(state.scores[TEMPERATURE_DRIFT]),
+                    round(state.scores[SPEED_Z]), round(state.scores[SPEED_DRIFT]),
+                    state.active[0] || state.active[1] || state.active[2] || state.active[3]);
+        }
+    }
+
+    private void score(EquipmentData data) {
+        Equipment equipment = data.getEquipment();
+        if (equipment == null || data.getTimestamp() == null) {
+            return;
+        }
+
+        State state = states.computeIfAbsent(equipment.getId(),
+                id -> new State(properties.getAlpha(), properties.getBaselineAlpha()));
+        long now = data.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        synchronized (state) {
+            // late samples would be scored against statistics that already include newer values
+            if (now < state.lastTimestamp) {
+                return;
+            }
+            state.lastTimestamp = now;
+
+            if (data.getTemperature() != null) {
+                double minStddev = properties.getMinTemperatureStddev();
+                double z = state.temperature.update(data.getTemperature(), minStddev);
+                if (state.temperature.count() > properties.getWarmupSamples()) {
+                    check(equipment, state, TEMPERATURE_Z, "temperature", z,
+                            properties.getZScoreThreshold(), properties.getZScoreClear(), data.getTemperature(), now);
+                    check(equipment, state, TEMPERATURE_DRIFT, "temperature drift", state.temperature.drift(minStddev),
+                            properties.getDriftThreshold(), properties.getDriftClear(), state.temperature.mean(), now);
+                }
+            }
+
+            if (data.getProductionSpeed() != null && (data.getStatus() == null || data.getStatus() == EquipmentStatus.RUN)) {
+                double minStddev = properties.getMinSpeedStddev();
+                double z = state.speed.update(data.getProductionSpeed(), minStddev);
+                if (state.speed.count() > properties.getWarmupSamples()) {
+                    check(equipment, state, SPEED_Z, "productionSpeed", z,
+                            properties.getZScoreThreshold(), properties.getZScoreClear(), data.getProductionSpeed(), now);
+                    check(equipment, state, SPEED_DRIFT, "productionSpeed drift", state.speed.drift(minStddev),
+                            properties.getDriftThreshold(), properties.getDriftClear(), state.speed.mean(), now);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fire once when |score| crosses the threshold; re-arm after it falls below clear
+     */
+    private void check(Equipment equipment, State state, int index, String signal, double score,
+                       double threshold, double clear, double value, long now) {
+        state.scores[index] = score;
+        double magnitude = Math.abs(score);
+
+        if (state.active[index]) {
+            if (magnitude < clear) {
+                state.active[index] = false;
+            }
+            return;
+        }
+        if (magnitude < threshold) {
+            return;
+        }
+
+        state.active[index] = true;
+        if (now - state.lastFiredAt[index] >= properties.getCooldownSeconds() * 1000) {
+            state.lastFiredAt[index] = now;
+            alert(String.format("Equipment %s: unusual %s (%.2f, score %+.1f)",
+                    equipment.getName(), signal, value, score));
+        }
+    }
+
+    private void alert(String message) {
+        try {
+            webSocketNotificationController.broadcastAlert(message, "INFO");
+        } catch (Exception e) {
+            log.warn("Anomaly alert broadcast failed: {}", e.getMessage());
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * Per-equipment detector state: two EWMA trackers plus four scores and flags
+     */
+    private static final class State {
+        private final EwmaStats temperature;
+        private final EwmaStats speed;
+        private final double[] scores = new double[4];
+        private final boolean[] active = new boolean[4];
+        private final long[] lastFiredAt = {Long.MIN_VALUE / 2, Long.MIN_VALUE / 2, Long.MIN_VALUE / 2, Long.MIN_VALUE / 2};
+        private long lastTimestamp;
+
+        private State(double alpha, double baselineAlpha) {
+            this.temperature = new EwmaStats(alpha, baselineAlpha);
+            this.speed = new EwmaStats(alpha, baselineAlpha);
+        }
+    }
+}
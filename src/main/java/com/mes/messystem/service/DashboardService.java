@@ -3,16 +3,21 @@ package com.mes.messystem.service;
 import com.mes.messystem.domain.*;
 import com.mes.messystem.dto.*;
 import com.mes.messystem.repository.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
@@ -21,83 +26,127 @@ import java.util.stream.Collectors;
 public class DashboardService {
 
     private final LotHistoryRepository lotHistoryRepository;
-    private final EquipmentDataRepository equipmentDataRepository;
     private final WorkOrderRepository workOrderRepository;
     private final EquipmentRepository equipmentRepository;
     private final LotRepository lotRepository;
+    private final ProductionCounterService productionCounterService;
+    private final EquipmentLatestService equipmentLatestService;
+    private final AnomalyDetector anomalyDetector;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${mes.dashboard.section-timeout-ms:2000}")
+    private long sectionTimeoutMs;
+
+    // one virtual thread per section; each section query runs in its own read-only transaction
+    // (self-invocation bypasses the @Transactional proxy, so sections go through readOnlyTx)
+    private final ExecutorService sectionExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private TransactionTemplate readOnlyTx;
+    // last good value per section, served when a section misses its deadline
+    private final Map<String, Object> lastGood = new ConcurrentHashMap<>();
 
     /**
-     * Get comprehensive dashboard data
+     * Get comprehensive dashboard data.
+     * The four sections are computed concurrently; a section that fails or misses
+     * its deadline falls back to its last good value and is listed in staleSections.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public DashboardResponse getDashboardData() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMs);
+
+        Future<TodayProductionStats> todayProduction = submit(this::getTodayProductionStats);
+        Future<List<ProductDefectRate>> defectRates = submit(() -> getProductDefectRates());
+        Future<List<EquipmentStatusSummary>> equipmentStatuses = submit(this::getEquipmentStatuses);
+        Future<List<WorkProgressInfo>> workProgresses = submit(() -> getWorkProgresses());
+
+        List<String> staleSections = new ArrayList<>();
         return DashboardResponse.builder()
-                .todayProduction(getTodayProductionStats())
-                .productDefectRates(getProductDefectRates())
-                .equipmentStatuses(getEquipmentStatuses())
-                .workProgresses(getWorkProgresses())
+                .todayProduction(await("todayProduction", todayProduction, deadline, staleSections,
+                        TodayProductionStats::new))
+                .productDefectRates(await("productDefectRates", defectRates, deadline, staleSections, List::of))
+                .equipmentStatuses(await("equipmentStatuses", equipmentStatuses, deadline, staleSections, List::of))
+                .workProgresses(await("workProgresses", workProgresses, deadline, staleSections, List::of))
+                .staleSections(staleSections)
                 .build();
     }
 
+    @PostConstruct
+    void initReadOnlyTx() {
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+    }
+
+    private <T> Future<T> submit(Supplier<T> section) {
+        return sectionExecutor.submit(() -> readOnlyTx.execute(status -> section.get()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T await(String section, Future<T> future, long deadline,
+                        List<String> staleSections, Supplier<T> empty) {
+        try {
+            T value = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (value != null) {
+                lastGood.put(section, value);
+            }
+            return value;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Dashboard section {} timed out after {} ms, serving last good value", section, sectionTimeoutMs);
+        } catch (ExecutionException e) {
+            log.error("Dashboard section {} failed, serving last good value", section, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+        }
+
+        staleSections.add(section);
+        T previous = (T) lastGood.get(section);
+        return previous != null ? previous : empty.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sectionExecutor.shutdownNow();
+    }
+
     /**
      * Calculate today's total production statistics
      */
     public TodayProductionStats getTodayProductionStats() {
-        LocalDateTime startOfDay = LocalDateTime.of(LocalDate.now(), LocalTime.MIN);
-        LocalDateTime endOfDay = LocalDateTime.of(LocalDate.now(), LocalTime.MAX);
-
-        List<LotHistory> todayHistories = lotHistoryRepository.findAll().stream()
-                .filter(lh -> lh.getProcessedAt() != null)
-                .filter(lh -> lh.getProcessedAt().isAfter(startOfDay) && lh.getProcessedAt().isBefore(endOfDay))
-                .toList();
-
-        int totalProduced = todayHistories.stream()
-                .mapToInt(lh -> lh.getOutputQuantity() != null ? lh.getOutputQuantity() : 0)
-                .sum();
-        
-        int totalDefects = todayHistories.stream()
-                .mapToInt(lh -> lh.getDefectQuantity() != null ? lh.getDefectQuantity() : 0)
-                .sum();
-        
-        int total = totalProduced + totalDefects;
-        double defectRate = total > 0 ? (double) totalDefects / total * 100 : 0.0;
-
-        return TodayProductionStats.builder()
-                .totalGoodQty(totalProduced)
-                .totalBadQty(totalDefects)
-                .totalQty(total)
-                .defectRate(defectRate)
-                .build();
+        return productionCounterService.getTodayStats();
     }
 
     /**
      * Calculate defect rate by product
      */
     public List<ProductDefectRate> getProductDefectRates() {
-        List<LotHistory> allHistories = lotHistoryRepository.findAll();
-
-        Map<Long, List<LotHistory>> historiesByProduct = allHistories.stream()
-                .filter(lh -> lh.getLot() != null && lh.getLot().getProduct() != null)
-                .collect(Collectors.groupingBy(lh -> lh.getLot().getProduct().getId()));
-
-        return historiesByProduct.entrySet().stream()
-                .map(entry -> {
-                    Long productId = entry.getKey();
-                    List<LotHistory> histories = entry.getValue();
-
-                    String productName = histories.get(0).getLot().getProduct().getName();
-                    int totalProduced = histories.stream()
-                            .mapToInt(lh -> lh.getOutputQuantity() != null ? lh.getOutputQuantity() : 0)
-                            .sum();
-                    int totalDefects = histories.stream()
-                            .mapToInt(lh -> lh.getDefectQuantity() != null ? lh.getDefectQuantity() : 0)
-                            .sum();
+        return toDefectRates(lotHistoryRepository.sumQuantitiesByProduct());
+    }
+
+    /**
+     * Calculate defect rate by product within [from, to)
+     */
+    public List<ProductDefectRate> getProductDefectRates(LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return getProductDefectRates();
+        }
+
+        return toDefectRates(lotHistoryRepository.sumQuantitiesByProductBetween(
+                from != null ? from : LocalDateTime.of(1970, 1, 1, 0, 0),
+                to != null ? to : LocalDateTime.now().plusDays(1)));
+    }
+
+    private List<ProductDefectRate> toDefectRates(List<LotHistoryRepository.ProductQuantityTotals> totals) {
+        return totals.stream()
+                .map(row -> {
+                    int totalProduced = row.getOutputQuantity() != null ? row.getOutputQuantity().intValue() : 0;
+                    int totalDefects = row.getDefectQuantity() != null ? row.getDefectQuantity().intValue() : 0;
                     int total = totalProduced + totalDefects;
 
                     double defectRate = total > 0 ? (double) totalDefects / total * 100 : 0.0;
 
                     return ProductDefectRate.builder()
-                            .productId(productId)
-                            .productName(productName)
+                            .productId(row.getProductId())
+                            .productName(row.getProductName())
                             .totalGoodQty(totalProduced)
                             .totalBadQty(totalDefects)
                             .defectRate(defectRate)
@@ -115,19 +164,24 @@ public class DashboardService {
 
         return equipments.stream()
                 .map(equipment -> {
-                    List<EquipmentData> recentData = equipmentDataRepository
-                            .findByEquipmentIdOrderByTimestampDesc(equipment.getId());
-
-                    EquipmentData latest = recentData.isEmpty() ? null : recentData.get(0);
+                    EquipmentLatest latest = equipmentLatestService.get(equipment.getId());
+                    AnomalyDetector.Scores scores = anomalyDetector.getScores(equipment.getId());
 
                     return EquipmentStatusSummary.builder()
                             .equipmentId(equipment.getId())
                             .equipmentName(equipment.getName())
                             .location(equipment.getLocation())
-                            .status(equipment.getStatus())
+                            .status(latest != null && latest.getStatus() != null
+                                    ? latest.getStatus()
+                                    : equipment.getStatus())
                             .temperature(latest != null ? latest.getTemperature() : null)
                             .productionSpeed(latest != null ? latest.getProductionSpeed() : null)
                             .lastUpdated(latest != null ? latest.getTimestamp() : null)
+                            .temperatureZScore(scores != null ? scores.temperatureZScore() : null)
+                            .temperatureDrift(scores != null ? scores.temperatureDrift() : null)
+                            .speedZScore(scores != null ? scores.speedZScore() : null)
+                            .speedDrift(scores != null ? scores.speedDrift() : null)
+                            .anomalous(scores != null ? scores.anomalous() : null)
                             .build();
                 })
                 .toList();
@@ -137,17 +191,40 @@ public class DashboardService {
      * Get work order progress information
      */
     public List<WorkProgressInfo> getWorkProgresses() {
-        List<WorkOrder> workOrders = workOrderRepository.findAll();
+        return getWorkProgresses(false);
+    }
+
+    /**
+     * Get work order progress information, optionally only for open work orders
+     */
+    public List<WorkProgressInfo> getWorkProgresses(boolean activeOnly) {
+        List<WorkOrder> workOrders;
+        List<LotRepository.WorkOrderLotCount> lotCounts;
+
+        if (activeOnly) {
+            Set<WorkOrderStatus> statuses = WorkOrderStatus.nonTerminal();
+            workOrders = workOrderRepository.findByStatusInWithProduct(statuses);
+            lotCounts = lotRepository.countGroupedByWorkOrderAndStatus(statuses);
+        } else {
+            workOrders = workOrderRepository.findAllWithProduct();
+            lotCounts = lotRepository.countGroupedByWorkOrderAndStatus();
+        }
+
+        // LOT 기반으로 진행률 계산: workOrderId -> [total, completed]
+        Map<Long, int[]> lotTotals = new HashMap<>();
+        for (LotRepository.WorkOrderLotCount row : lotCounts) {
+            int[] totals = lotTotals.computeIfAbsent(row.getWorkOrderId(), id -> new int[2]);
+            totals[0] += row.getLotCount().intValue();
+            if (row.getStatus() == LotStatus.COMPLETED) {
+                totals[1] += row.getLotCount().intValue();
+            }
+        }
 
         return workOrders.stream()
-                .filter(wo -> wo.getProduct() != null)
                 .map(wo -> {
-                    // LOT 기반으로 진행률 계산
-                    List<Lot> lots = lotRepository.findByWorkOrderId(wo.getId());
-                    int totalLots = lots.size();
-                    int completedLots = (int) lots.stream()
-                            .filter(lot -> lot.getStatus() == LotStatus.COMPLETED)
-                            .count();
+                    int[] totals = lotTotals.getOrDefault(wo.getId(), new int[2]);
+                    int totalLots = totals[0];
+                    int completedLots = totals[1];
 
                     double progressPercentage = totalLots > 0
                             ? (double) completedLots / totalLots * 100
@@ -0,0 +1,171 @@
+package com.mes.messystem.service;
+
+import com.mes.messystem.dto.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Computes the dashboard once per interval and fans the snapshot out to
+ * every subscriber (SSE emitters, /topic/dashboard).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardSnapshotService {
+
+    private final DashboardService dashboardService;
+
+    private final AtomicReference<DashboardSnapshot> current = new AtomicReference<>();
+    private final List<Consumer<DashboardSnapshot>> listeners = new CopyOnWriteArrayList<>();
+    // hot multicast of snapshots, replaying the latest one to new subscribers
+    private final Sinks.Many<DashboardSnapshot> sink = Sinks.many().replay().latest();
+
+    /**
+     * Recompute the snapshot. Listeners are only notified when the data changed.
+     */
+    @Scheduled(fixedDelayString = "${mes.dashboard.snapshot-interval-ms:3000}")
+    public synchronized void refresh() {
+        DashboardResponse data;
+        try {
+            data = dashboardService.getDashboardData();
+        } catch (Exception e) {
+            log.error("Failed to compute dashboard snapshot", e);
+            return;
+        }
+
+        DashboardSnapshot previous = current.get();
+        if (previous != null && previous.getData().equals(data)) {
+            return;
+        }
+
+        long version = previous != null ? previous.getVersion() + 1 : 1;
+        DashboardSnapshot snapshot = DashboardSnapshot.builder()
+                .version(version)
+                .generatedAt(LocalDateTime.now())
+                .data(data)
+                .delta(previous != null ? diff(previous, data, version) : full(data, version))
+                .build();
+        current.set(snapshot);
+        sink.tryEmitNext(snapshot);
+
+        for (Consumer<DashboardSnapshot> listener : listeners) {
+            try {
+                listener.accept(snapshot);
+            } catch (Exception e) {
+                log.warn("Dashboard snapshot listener failed", e);
+            }
+        }
+        log.debug("Dashboard snapshot v{} published to {} listeners", snapshot.getVersion(), listeners.size());
+    }
+
+    /**
+     * Latest snapshot, computed on first use
+     */
+    public DashboardSnapshot getLatest() {
+        DashboardSnapshot snapshot = current.get();
+        if (snapshot == null) {
+            refresh();
+            snapshot = current.get();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Shared snapshot stream; subscribers start with the latest snapshot
+     */
+    public Flux<DashboardSnapshot> stream() {
+        return Flux.defer(() -> {
+            getLatest();
+            return sink.asFlux();
+        });
+    }
+
+    public void subscribe(Consumer<DashboardSnapshot> listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(Consumer<DashboardSnapshot> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Full resync message for the given snapshot
+     */
+    public DashboardDelta toFullDelta(DashboardSnapshot snapshot) {
+        return full(snapshot.getData(), snapshot.getVersion());
+    }
+
+    private DashboardDelta full(DashboardResponse data, long version) {
+        return DashboardDelta.builder()
+                .sequence(version)
+                .full(true)
+                .todayProduction(data.getTodayProduction())
+                .productDefectRates(data.getProductDefectRates())
+                .equipmentStatuses(data.getEquipmentStatuses())
+                .workProgresses(data.getWorkProgresses())
+                .staleSections(data.getStaleSections())
+                .build();
+    }
+
+    private DashboardDelta diff(DashboardSnapshot previous, DashboardResponse data, long version) {
+        DashboardResponse before = previous.getData();
+
+        DashboardDelta.DashboardDeltaBuilder delta = DashboardDelta.builder()
+                .sequence(version)
+                .baseSequence(previous.getVersion())
+                .full(false);
+
+        if (!Objects.equals(before.getTodayProduction(), data.getTodayProduction())) {
+            delta.todayProduction(data.getTodayProduction());
+        }
+        if (!Objects.equals(before.getProductDefectRates(), data.getProductDefectRates())) {
+            delta.productDefectRates(data.getProductDefectRates());
+        }
+
+        Map<Long, EquipmentStatusSummary> equipmentBefore = new HashMap<>();
+        before.getEquipmentStatuses().forEach(row -> equipmentBefore.put(row.getEquipmentId(), row));
+        List<EquipmentStatusSummary> changedEquipment = new ArrayList<>();
+        for (EquipmentStatusSummary row : data.getEquipmentStatuses()) {
+            if (!row.equals(equipmentBefore.remove(row.getEquipmentId()))) {
+                changedEquipment.add(row);
+            }
+        }
+        if (!changedEquipment.isEmpty()) {
+            delta.equipmentStatuses(changedEquipment);
+        }
+        if (!equipmentBefore.isEmpty()) {
+            delta.removedEquipmentIds(new ArrayList<>(equipmentBefore.keySet()));
+        }
+
+        Map<Long, WorkProgressInfo> progressBefore = new HashMap<>();
+        before.getWorkProgresses().forEach(row -> progressBefore.put(row.getWorkOrderId(), row));
+        List<WorkProgressInfo> changedProgress = new ArrayList<>();
+        for (WorkProgressInfo row : data.getWorkProgresses()) {
+            if (!row.equals(progressBefore.remove(row.getWorkOrderId()))) {
+                changedProgress.add(row);
+            }
+        }
+        if (!changedProgress.isEmpty()) {
+            delta.workProgresses(changedProgress);
+        }
+        if (!progressBefore.isEmpty()) {
+            delta.removedWorkOrderIds(new ArrayList<>(progressBefore.keySet()));
+        }
+
+        if (!Objects.equals(before.getStaleSections(), data.getStaleSections())) {
+            delta.staleSections(data.getStaleSections());
+        }
+
+        return delta.build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.mes.messystem.service;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Data-change version counters used as ETags.
+ * Writers bump the domain they touch after commit; read endpoints compare
+ * If-None-Match against the current versions before computing anything.
+ */
+@Service
+public class DataVersionService {
+
+    public enum Domain {
+        PRODUCTION,   // lots, lot history, products
+        EQUIPMENT,    // equipment status changes (not every telemetry sample)
+        WORK_ORDER,   // work orders, work results
+        QUALITY       // quality inspections
+    }
+
+    // distinguishes versions issued before a restart
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLongArray versions = new AtomicLongArray(Domain.values().length);
+
+    /**
+     * Bump versions after the current transaction commits
+     */
+    public void bump(Domain... domains) {
+        TransactionCallbacks.afterCommit(() -> bumpNow(domains));
+    }
+
+    /**
+     * Bump versions immediately, for callers already running after commit
+     */
+    public void bumpNow(Domain... domains) {
+        for (Domain domain : domains) {
+            versions.incrementAndGet(domain.ordinal());
+        }
+    }
+
+    public String etag(String scope, Domain... domains) {
+        StringBuilder etag = new StringBuilder("\"").append(scope).append('-').append(bootId);
+        for (Domain domain : domains) {
+            etag.append('-').append(versions.get(domain.ordinal()));
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * 304 when If-None-Match matches the current version, otherwise the body with its ETag.
+     * The version is read before the body is computed, so an ETag never labels older data.
+     */
+    public <T> ResponseEntity<T> conditional(String ifNoneMatch, String etag, Supplier<T> body) {
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(body.get());
+    }
+
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,61 @@
+package com.mes.messystem.service;
+
+import com.mes.messystem.controller.WebSocketNotificationController;
+import com.mes.messystem.dto.EquipmentStatusSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conflates /topic/equipment broadcasts: only the latest summary per equipment
+ * is kept, and changed ones are sent at a fixed rate from the scheduler thread.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EquipmentBroadcastConflater {
+
+    private final WebSocketNotificationController webSocketNotificationController;
+
+    private final Map<Long, EquipmentStatusSummary> pending = new ConcurrentHashMap<>();
+    private final Map<Long, EquipmentStatusSummary> lastSent = new ConcurrentHashMap<>();
+
+    /**
+     * Queue a summary once the surrounding transaction commits; replaces any pending one
+     */
+    public void offer(EquipmentStatusSummary summary) {
+        TransactionCallbacks.afterCommit(() -> pending.merge(summary.getEquipmentId(), summary, this::newer));
+    }
+
+    @Scheduled(fixedRateString = "${mes.equipment.broadcast-interval-ms:1000}")
+    public void flush() {
+        int sent = 0;
+        for (Long equipmentId : pending.keySet()) {
+            EquipmentStatusSummary summary = pending.remove(equipmentId);
+            if (summary == null || summary.equals(lastSent.get(equipmentId))) {
+                continue;
+            }
+            try {
+                webSocketNotificationController.broadcastEquipmentUpdate(summary);
+                lastSent.put(equipmentId, summary);
+                sent++;
+            } catch (Exception e) {
+                log.warn("Equipment broadcast failed for {}: {}", equipmentId, e.getMessage());
+            }
+        }
+        if (sent > 0) {
+            log.debug("Broadcasted {} conflated equipment updates", sent);
+        }
+    }
+
+    private EquipmentStatusSummary newer(EquipmentStatusSummary current, EquipmentStatusSummary candidate) {
+        if (current.getLastUpdated() == null || candidate.getLastUpdated() == null) {
+            return candidate;
+        }
+        return candidate.getLastUpdated().isBefore(current.getLastUpdated()) ? current : candidate;
+    }
+}
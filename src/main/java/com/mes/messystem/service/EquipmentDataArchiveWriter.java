@@ -0,0 +1,59 @@
+package com.mes.messystem.service;
+
+import com.mes.messystem.repository.EquipmentDataPurgeRepository.RawRow;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip CSV archive of purged equipment_data rows, one file per purge run and type
+ */
+class EquipmentDataArchiveWriter implements Closeable {
+
+    private static final String HEADER = "id,equipment_id,status,temperature,production_speed,timestamp";
+
+    private final Path file;
+    private final BufferedWriter writer;
+
+    EquipmentDataArchiveWriter(Path directory, String name) throws IOException {
+        Files.createDirectories(directory);
+        this.file = directory.resolve(name + ".csv.gz");
+        this.writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file), true), StandardCharsets.UTF_8));
+        writer.write(HEADER);
+        writer.newLine();
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    void write(List<RawRow> rows) throws IOException {
+        for (RawRow row : rows) {
+            writer.write(row.id() + "," + row.equipmentId() + ","
+                    + nullToEmpty(row.status()) + ","
+                    + nullToEmpty(row.temperature()) + ","
+                    + nullToEmpty(row.productionSpeed()) + ","
+                    + nullToEmpty(row.timestamp()));
+            writer.newLine();
+        }
+        // sync-flush so the chunk reaches the file before its rows are deleted
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private static String nullToEmpty(Object value) {
+        return value != null ? value.toString() : "";
+    }
+}
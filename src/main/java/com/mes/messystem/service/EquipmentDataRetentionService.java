@@ -0,0 +1,262 @@
+package com.mes.messystem.service;
+
+import com.mes.messystem.config.RetentionProperties;
+import com.mes.messystem.domain.Equipment;
+import com.mes.messystem.domain.EquipmentType;
+import com.mes.messystem.domain.RollupResolution;
+import com.mes.messystem.dto.RetentionStatus;
+import com.mes.messystem.repository.EquipmentDataPurgeRepository;
+import com.mes.messystem.repository.EquipmentDataPurgeRepository.RawRow;
+import com.mes.messystem.repository.EquipmentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 설비 원시 데이터 보존 기간 관리.
+ * Expired equipment_data rows are deleted in small id-range chunks, optionally
+ * archived first to gzip files; telemetry block archiving works one equipment-hour
+ * at a time instead. Rollups are kept, so trends outlive raw rows.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EquipmentDataRetentionService {
+
+    private final RetentionProperties properties;
+    private final EquipmentRepository equipmentRepository;
+    private final EquipmentDataPurgeRepository purgeRepository;
+    private final TelemetryBlockService telemetryBlockService;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Thread purgeThread;
+
+    // progress and metrics, written by the purging thread only
+    private volatile String currentType;
+    private volatile long currentChunkStartId;
+    private volatile long lastExpiredId;
+    private volatile LocalDateTime lastRunStartedAt;
+    private volatile LocalDateTime lastRunFinishedAt;
+    private volatile long lastRunDeleted;
+    private volatile long lastRunArchived;
+    private volatile double lastRunRowsPerSecond;
+    private volatile long totalDeleted;
+    private volatile long totalArchived;
+    private volatile String lastError;
+
+    @PostConstruct
+    void warnIfPurgingWithoutArchive() {
+        if (properties.isEnabled() && !properties.getArchive().isEnabled()) {
+            log.warn("Retention is enabled without archive: expired equipment_data rows will be deleted permanently");
+        }
+    }
+
+    /**
+     * Hand the nightly purge to its own thread; the chunk pauses would otherwise
+     * hold a thread of the shared scheduling pool for the whole run
+     */
+    @Scheduled(cron = "${mes.retention.cron:0 30 3 * * *}")
+    public void scheduledPurge() {
+        if (properties.isEnabled() && !purgeAsync()) {
+            log.info("Retention purge already running, skipping");
+        }
+    }
+
+    /**
+     * Start a purge of every equipment type on a background thread.
+     * Refused while retention is disabled, since a purge deletes raw history.
+     * @return false when a purge is already running
+     */
+    public boolean purgeAsync() {
+        if (!properties.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Retention is disabled; set mes.retention.enabled=true to purge");
+        }
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        purgeThread = Thread.ofVirtual().name("retention-purge").start(this::runPurge);
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Thread thread = purgeThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    // caller holds the running flag; it is released when the purge ends
+    private void runPurge() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        lastRunStartedAt = startedAt;
+        lastRunDeleted = 0;
+        lastRunArchived = 0;
+        lastError = null;
+        try {
+            Map<EquipmentType, List<Long>> equipmentByType = new HashMap<>();
+            List<Long> untyped = new ArrayList<>();
+            for (Equipment equipment : equipmentRepository.findAll()) {
+                if (equipment.getType() != null) {
+                    equipmentByType.computeIfAbsent(equipment.getType(), type -> new ArrayList<>()).add(equipment.getId());
+                } else {
+                    untyped.add(equipment.getId());
+                }
+            }
+
+            for (Map.Entry<EquipmentType, List<Long>> entry : equipmentByType.entrySet()) {
+                purgeGroup(entry.getKey().name(), entry.getValue(), properties.daysFor(entry.getKey()), startedAt);
+            }
+            if (!untyped.isEmpty()) {
+                purgeGroup("UNTYPED", untyped, properties.getDefaultDays(), startedAt);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            lastError = "Interrupted";
+            log.warn("Retention purge interrupted, stopping");
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            log.error("Retention purge failed", e);
+        } finally {
+            LocalDateTime finishedAt = LocalDateTime.now();
+            long elapsedMs = Math.max(1, Duration.between(startedAt, finishedAt).toMillis());
+            lastRunFinishedAt = finishedAt;
+            lastRunRowsPerSecond = lastRunDeleted * 1000.0 / elapsedMs;
+            currentType = null;
+            purgeThread = null;
+            running.set(false);
+            log.info("Retention purge finished: {} rows deleted, {} archived in {} ms",
+                    lastRunDeleted, lastRunArchived, elapsedMs);
+        }
+    }
+
+    public RetentionStatus getStatus() {
+        Map<String, Integer> retentionDays = new TreeMap<>();
+        for (EquipmentType type : EquipmentType.values()) {
+            retentionDays.put(type.name(), properties.daysFor(type));
+        }
+
+        return RetentionStatus.builder()
+                .enabled(properties.isEnabled())
+                .running(running.get())
+                .currentType(currentType)
+                .currentChunkStartId(currentChunkStartId)
+                .lastExpiredId(lastExpiredId)
+                .lastRunStartedAt(lastRunStartedAt)
+                .lastRunFinishedAt(lastRunFinishedAt)
+                .lastRunDeleted(lastRunDeleted)
+                .lastRunArchived(lastRunArchived)
+                .lastRunRowsPerSecond(Math.round(lastRunRowsPerSecond * 100.0) / 100.0)
+                .totalDeleted(totalDeleted)
+                .totalArchived(totalArchived)
+                .retentionDays(retentionDays)
+                .lastError(lastError)
+                .build();
+    }
+
+    private void purgeGroup(String type, List<Long> equipmentIds, int days, LocalDateTime now)
+            throws IOException, InterruptedException {
+        LocalDateTime cutoff = now.minusDays(days);
+        if (properties.getArchive().isEnabled()
+                && properties.getArchive().getFormat() == RetentionProperties.ArchiveFormat.BLOCKS) {
+            purgeGroupToBlocks(type, equipmentIds, cutoff);
+            return;
+        }
+
+        long[] range = purgeRepository.findExpiredIdRange(equipmentIds, cutoff);
+        if (range == null) {
+            return;
+        }
+
+        currentType = type;
+        lastExpiredId = range[1];
+        log.info("Retention purge {}: rows before {} in id range [{}, {}]", type, cutoff, range[0], range[1]);
+
+        boolean archiving = properties.getArchive().isEnabled();
+        EquipmentDataArchiveWriter archive = archiving
+                ? new EquipmentDataArchiveWriter(Path.of(properties.getArchive().getDirectory()),
+                        "equipment_data-" + type + "-" + now.format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss")))
+                : null;
+        try {
+            int chunkSize = Math.max(1, properties.getChunkSize());
+            // rows above range[1] were inserted after the scan started and are left alone
+            for (long fromId = range[0]; fromId <= range[1]; fromId += chunkSize) {
+                long toId = Math.min(fromId + chunkSize, range[1] + 1);
+                currentChunkStartId = fromId;
+
+                if (archiving) {
+                    List<RawRow> rows = purgeRepository.findExpired(equipmentIds, cutoff, fromId, toId);
+                    archive.write(rows);
+                    lastRunArchived += rows.size();
+                    totalArchived += rows.size();
+                }
+
+                int deleted = purgeRepository.deleteExpired(equipmentIds, cutoff, fromId, toId);
+                lastRunDeleted += deleted;
+                totalDeleted += deleted;
+
+                if (properties.getChunkPauseMs() > 0) {
+                    Thread.sleep(properties.getChunkPauseMs());
+                }
+            }
+        } finally {
+            if (archive != null) {
+                archive.close();
+                log.info("Archived expired {} rows to {}", type, archive.getFile());
+            }
+        }
+    }
+
+    /**
+     * Archive to telemetry blocks one equipment-hour at a time, so each block holds a
+     * full hour of samples. Only hours entirely before the cutoff are taken; the hour
+     * containing the cutoff waits for the next run.
+     */
+    private void purgeGroupToBlocks(String type, List<Long> equipmentIds, LocalDateTime cutoff)
+            throws InterruptedException {
+        LocalDateTime hourCutoff = RollupResolution.HOUR.bucketStart(cutoff);
+        currentType = type;
+        log.info("Retention purge {}: whole hours before {} into telemetry blocks", type, hourCutoff);
+
+        for (Long equipmentId : equipmentIds) {
+            LocalDateTime oldest;
+            while ((oldest = purgeRepository.findOldestTimestamp(equipmentId, hourCutoff)) != null) {
+                LocalDateTime hour = RollupResolution.HOUR.bucketStart(oldest);
+                List<RawRow> rows = purgeRepository.findBetween(equipmentId, hour, hour.plusHours(1));
+                if (rows.isEmpty()) {
+                    break;
+                }
+
+                long maxId = rows.stream().mapToLong(RawRow::id).max().getAsLong();
+                currentChunkStartId = rows.stream().mapToLong(RawRow::id).min().getAsLong();
+                lastExpiredId = maxId;
+
+                telemetryBlockService.archive(rows);
+                lastRunArchived += rows.size();
+                totalArchived += rows.size();
+
+                int deleted = purgeRepository.deleteBetween(equipmentId, hour, hour.plusHours(1), maxId);
+                lastRunDeleted += deleted;
+                totalDeleted += deleted;
+
+                if (properties.getChunkPauseMs() > 0) {
+                    Thread.sleep(properties.getChunkPauseMs());
+                }
+            }
+        }
+    }
+}
@@ -1,20 +1,34 @@
 package com.mes.messystem.service;
 
-import com.mes.messystem.controller.WebSocketNotificationController;
 import com.mes.messystem.domain.Equipment;
 import com.mes.messystem.domain.EquipmentData;
-import com.mes.messystem.domain.EquipmentStatus;
+import com.mes.messystem.dto.EquipmentDataBatchResponse;
+import com.mes.messystem.dto.EquipmentDataPage;
 import com.mes.messystem.dto.EquipmentDataRequest;
 import com.mes.messystem.dto.EquipmentStatusSummary;
+import com.mes.messystem.dto.WriteBehindStatus;
+import com.mes.messystem.repository.EquipmentDataBatchRepository;
 import com.mes.messystem.repository.EquipmentDataRepository;
 import com.mes.messystem.repository.EquipmentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @Service
@@ -22,23 +36,104 @@ import java.util.List;
 public class EquipmentDataService {
 
     private final EquipmentDataRepository equipmentDataRepository;
+    private final EquipmentDataBatchRepository equipmentDataBatchRepository;
     private final EquipmentRepository equipmentRepository;
-    private final WebSocketNotificationController webSocketNotificationController;
+    private final EquipmentLatestService equipmentLatestService;
+    private final TelemetryRollupService telemetryRollupService;
+    private final RecentTelemetryService recentTelemetryService;
+    private final EquipmentBroadcastConflater equipmentBroadcastConflater;
+    private final AlarmRuleEngine alarmRuleEngine;
+    private final EquipmentStateTracker equipmentStateTracker;
+    private final EquipmentStreamService equipmentStreamService;
+    private final AnomalyDetector anomalyDetector;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Write-behind ack semantics: ACCEPTED returns once queued, DURABLE once committed
+     */
+    public enum WriteAck {
+        ACCEPTED,
+        DURABLE
+    }
+
+    @Value("${mes.equipment.write-behind.enabled:false}")
+    private boolean writeBehindEnabled;
+
+    @Value("${mes.equipment.write-behind.ack:ACCEPTED}")
+    private WriteAck writeAck;
+
+    @Value("${mes.equipment.write-behind.capacity:10000}")
+    private int writeBehindCapacity;
+
+    @Value("${mes.equipment.write-behind.flush-rows:500}")
+    private int writeBehindFlushRows;
+
+    @Value("${mes.equipment.write-behind.flush-interval-ms:200}")
+    private long writeBehindFlushIntervalMs;
+
+    @Value("${mes.equipment.write-behind.durable-timeout-ms:5000}")
+    private long durableTimeoutMs;
+
+    private TelemetryWriteBehindQueue writeBehind;
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 5000;
+
+    @PostConstruct
+    public void startWriteBehind() {
+        if (!writeBehindEnabled) {
+            return;
+        }
+        writeBehind = new TelemetryWriteBehindQueue(writeBehindCapacity, writeBehindFlushRows,
+                writeBehindFlushIntervalMs, this::groupCommit);
+        writeBehind.start();
+        log.info("Telemetry write-behind enabled - capacity: {}, flush: {} rows / {} ms, ack: {}",
+                writeBehindCapacity, writeBehindFlushRows, writeBehindFlushIntervalMs, writeAck);
+    }
+
+    @PreDestroy
+    public void stopWriteBehind() {
+        if (writeBehind != null) {
+            writeBehind.close();
+        }
+    }
+
+    /**
+     * True when writes are acknowledged before they are committed
+     */
+    public boolean isDeferredAck() {
+        return writeBehind != null && writeAck == WriteAck.ACCEPTED;
+    }
+
+    public WriteBehindStatus getWriteBehindStatus() {
+        if (writeBehind == null) {
+            return WriteBehindStatus.builder().enabled(false).build();
+        }
+        return WriteBehindStatus.builder()
+                .enabled(true)
+                .ack(writeAck.name())
+                .capacity(writeBehindCapacity)
+                .pendingRows(writeBehind.pendingRows())
+                .committedRows(writeBehind.committedRows())
+                .droppedRows(writeBehind.droppedRows())
+                .failedCommits(writeBehind.failedCommits())
+                .build();
+    }
 
-    @Transactional
     public EquipmentData saveEquipmentData(EquipmentDataRequest request) {
         Equipment equipment = equipmentRepository.findById(request.getEquipmentId())
                 .orElseThrow(() -> new RuntimeException("Equipment not found"));
 
-        EquipmentData data = EquipmentData.builder()
-                .equipment(equipment)
-                .status(request.getStatus())
-                .temperature(request.getTemperature())
-                .productionSpeed(request.getProductionSpeed())
-                .timestamp(LocalDateTime.now())
-                .build();
+        EquipmentData data = toEntity(equipment, request);
+        if (writeBehind != null) {
+            enqueue(List.of(data));
+            return data;
+        }
 
-        EquipmentData saved = equipmentDataRepository.save(data);
+        EquipmentData saved = transactionTemplate.execute(status -> {
+            EquipmentData row = equipmentDataRepository.save(data);
+            afterIngest(List.of(row));
+            return row;
+        });
 
         log.info("Equipment Data Saved - Equipment: {}, Status: {}, Temp: {}°C, Speed: {}",
                 equipment.getName(),
@@ -46,31 +141,206 @@ public class EquipmentDataService {
                 saved.getTemperature(),
                 saved.getProductionSpeed());
 
-        // Broadcast equipment status update via WebSocket
-        EquipmentStatusSummary statusSummary = EquipmentStatusSummary.builder()
-                .equipmentId(equipment.getId())
-                .equipmentName(equipment.getName())
-                .location(equipment.getLocation())
-                .status(saved.getStatus())
-                .temperature(saved.getTemperature())
-                .productionSpeed(saved.getProductionSpeed())
-                .lastUpdated(saved.getTimestamp())
+        return saved;
+    }
+
+    /**
+     * 여러 샘플을 한 번에 저장.
+     * Equipment is resolved with one query and rows are written with JDBC batch inserts;
+     * invalid samples are rejected individually without failing the batch.
+     */
+    public EquipmentDataBatchResponse saveEquipmentDataBatch(List<EquipmentDataRequest> requests) {
+        Set<Long> equipmentIds = new HashSet<>();
+        for (EquipmentDataRequest request : requests) {
+            if (request != null && request.getEquipmentId() != null) {
+                equipmentIds.add(request.getEquipmentId());
+            }
+        }
+        Map<Long, Equipment> equipments = new HashMap<>();
+        equipmentRepository.findAllById(equipmentIds)
+                .forEach(equipment -> equipments.put(equipment.getId(), equipment));
+
+        List<EquipmentData> rows = new ArrayList<>();
+        List<EquipmentDataBatchResponse.SampleResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            EquipmentDataRequest request = requests.get(i);
+            String reason = validate(request, equipments);
+            if (reason != null) {
+                results.add(new EquipmentDataBatchResponse.SampleResult(
+                        i, EquipmentDataBatchResponse.SampleStatus.REJECTED, reason));
+                continue;
+            }
+
+            rows.add(toEntity(equipments.get(request.getEquipmentId()), request));
+            results.add(new EquipmentDataBatchResponse.SampleResult(
+                    i, EquipmentDataBatchResponse.SampleStatus.ACCEPTED, null));
+        }
+
+        if (writeBehind != null) {
+            enqueue(rows);
+        } else {
+            transactionTemplate.executeWithoutResult(status -> {
+                equipmentDataBatchRepository.insertAll(rows);
+                afterIngest(rows);
+            });
+        }
+
+        log.info("Equipment Data Batch Saved - Accepted: {}, Rejected: {}",
+                rows.size(), requests.size() - rows.size());
+
+        return EquipmentDataBatchResponse.builder()
+                .accepted(rows.size())
+                .rejected(requests.size() - rows.size())
+                .results(results)
                 .build();
+    }
+
+    /**
+     * Hand rows to the write-behind queue; waits for the commit when ack is DURABLE
+     */
+    private void enqueue(List<EquipmentData> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        CompletableFuture<Void> committed = writeBehind.submit(rows);
+        if (writeAck != WriteAck.DURABLE) {
+            return;
+        }
+        try {
+            committed.get(durableTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TelemetryCommitException("Interrupted waiting for telemetry commit", e);
+        } catch (TimeoutException e) {
+            throw new TelemetryCommitException("Telemetry commit not confirmed within " + durableTimeoutMs + " ms", e);
+        } catch (ExecutionException e) {
+            throw new TelemetryCommitException("Telemetry commit failed", e.getCause());
+        }
+    }
 
-        webSocketNotificationController.broadcastEquipmentUpdate(statusSummary);
+    /**
+     * Writer thread: one transaction per drained group
+     */
+    private void groupCommit(List<EquipmentData> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            equipmentDataBatchRepository.insertAll(rows);
+            afterIngest(rows);
+        });
+        log.debug("Telemetry group commit: {} rows", rows.size());
+    }
 
-        // Send alert if equipment is in ALARM state
-        if (saved.getStatus() == EquipmentStatus.ALARM) {
-            webSocketNotificationController.broadcastAlert(
-                    "Equipment " + equipment.getName() + " is in ALARM state!",
-                    "WARNING"
-            );
+    private String validate(EquipmentDataRequest request, Map<Long, Equipment> equipments) {
+        if (request == null || request.getEquipmentId() == null) {
+            return "equipmentId is required";
+        }
+        if (!equipments.containsKey(request.getEquipmentId())) {
+            return "Equipment not found";
         }
+        if (request.getStatus() == null) {
+            return "status is required";
+        }
+        return null;
+    }
 
-        return saved;
+    private EquipmentData toEntity(Equipment equipment, EquipmentDataRequest request) {
+        return EquipmentData.builder()
+                .equipment(equipment)
+                .status(request.getStatus())
+                .temperature(request.getTemperature())
+                .productionSpeed(request.getProductionSpeed())
+                .timestamp(request.getTimestamp() != null ? request.getTimestamp() : LocalDateTime.now())
+                .build();
     }
 
-    public List<EquipmentData> getEquipmentDataHistory(Long equipmentId) {
-        return equipmentDataRepository.findByEquipmentIdOrderByTimestampDesc(equipmentId);
+    /**
+     * Post-ingest pipeline shared by every write path: latest values, rollups and recent rings,
+     * alarm rules, anomaly scores, state tracking, then the newest sample per equipment to the conflated
+     * broadcast and the per-equipment SSE streams.
+     * Everything here takes effect after commit.
+     */
+    private void afterIngest(List<EquipmentData> samples) {
+        telemetryRollupService.record(samples);
+        recentTelemetryService.record(samples);
+
+        // Alarm rules; alerts are never conflated
+        alarmRuleEngine.process(samples);
+        anomalyDetector.process(samples);
+        equipmentStateTracker.record(samples);
+
+        Map<Long, EquipmentData> newest = new LinkedHashMap<>();
+        for (EquipmentData data : samples) {
+            equipmentLatestService.update(data);
+            newest.merge(data.getEquipment().getId(), data,
+                    (current, candidate) -> candidate.getTimestamp().isBefore(current.getTimestamp()) ? current : candidate);
+        }
+
+        // Equipment status update via WebSocket, conflated per equipment;
+        // SSE viewers of a single equipment get every batch's newest sample
+        for (EquipmentData data : newest.values()) {
+            Equipment equipment = data.getEquipment();
+            EquipmentStatusSummary statusSummary = EquipmentStatusSummary.builder()
+                    .equipmentId(equipment.getId())
+                    .equipmentName(equipment.getName())
+                    .location(equipment.getLocation())
+                    .status(data.getStatus())
+                    .temperature(data.getTemperature())
+                    .productionSpeed(data.getProductionSpeed())
+                    .lastUpdated(data.getTimestamp())
+                    .build();
+
+            equipmentBroadcastConflater.offer(statusSummary);
+            equipmentStreamService.publish(statusSummary);
+        }
+    }
+
+    /**
+     * 설비 이력 조회 (최신순, keyset pagination on (timestamp, id)).
+     * Each call reads at most limit + 1 rows regardless of how much history exists.
+     */
+    public EquipmentDataPage getEquipmentDataHistory(Long equipmentId, LocalDateTime from, LocalDateTime to,
+                                                     int limit, String cursor) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+        LocalDateTime start = from != null ? from : LocalDateTime.of(1970, 1, 1, 0, 0);
+        LocalDateTime end = to != null ? to : LocalDateTime.now().plusDays(1);
+        Pageable page = PageRequest.of(0, pageSize + 1);
+
+        List<EquipmentData> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = equipmentDataRepository.findPage(equipmentId, start, end, page);
+        } else {
+            HistoryCursor after = HistoryCursor.decode(cursor);
+            rows = equipmentDataRepository.findPageAfter(equipmentId, start, end,
+                    after.timestamp(), after.id(), page);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<EquipmentData> items = hasMore ? rows.subList(0, pageSize) : rows;
+        EquipmentData last = items.isEmpty() ? null : items.get(items.size() - 1);
+
+        return EquipmentDataPage.builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? new HistoryCursor(last.getTimestamp(), last.getId()).encode() : null)
+                .build();
+    }
+
+    /**
+     * Opaque history cursor: position of the last row returned
+     */
+    private record HistoryCursor(LocalDateTime timestamp, Long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((timestamp + "," + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static HistoryCursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",");
+                return new HistoryCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
     }
 }
@@ -0,0 +1,140 @@
+package com.mes.messystem.service;
+
+import com.mes.messystem.domain.Equipment;
+import com.mes.messystem.domain.EquipmentData;
+import com.mes.messystem.domain.EquipmentLatest;
+import com.mes.messystem.repository.EquipmentDataRepository;
+import com.mes.messystem.repository.EquipmentLatestRepository;
+import com.mes.messystem.repository.EquipmentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last known telemetry value per equipment.
+ * Reads are served from memory; changed rows are flushed to equipment_latest
+ * periodically so the values survive a restart.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EquipmentLatestService {
+
+    private final EquipmentLatestRepository equipmentLatestRepository;
+    private final EquipmentDataRepository equipmentDataRepository;
+    private final EquipmentRepository equipmentRepository;
+    private final DataVersionService dataVersionService;
+
+    private final Map<Long, EquipmentLatest> latest = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Load last values on startup, backfilling equipment that has no row yet
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        equipmentLatestRepository.findAll()
+                .forEach(row -> latest.merge(row.getEquipmentId(), row, this::newer));
+
+        for (Equipment equipment : equipmentRepository.findAll()) {
+            if (!latest.containsKey(equipment.getId())) {
+                equipmentDataRepository.findFirstByEquipmentIdOrderByTimestampDesc(equipment.getId())
+                        .ifPresent(this::apply);
+            }
+        }
+
+        log.info("Equipment latest values loaded: {} equipment", latest.size());
+    }
+
+    /**
+     * Record a saved sample. Applied after commit when called inside a transaction.
+     */
+    public void update(EquipmentData data) {
+        TransactionCallbacks.afterCommit(() -> apply(data));
+    }
+
+    public EquipmentLatest get(Long equipmentId) {
+        return latest.get(equipmentId);
+    }
+
+    /**
+     * Flush changed values to equipment_latest
+     */
+    @Scheduled(fixedDelayString = "${mes.equipment.latest-flush-ms:5000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<EquipmentLatest> rows = new ArrayList<>();
+        for (Long equipmentId : dirty) {
+            dirty.remove(equipmentId);
+            EquipmentLatest row = latest.get(equipmentId);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+
+        try {
+            equipmentLatestRepository.saveAll(rows);
+        } catch (RuntimeException e) {
+            // mark them again so the next flush retries with the latest values
+            rows.forEach(row -> dirty.add(row.getEquipmentId()));
+            log.warn("Equipment latest flush failed, {} rows will be retried", rows.size(), e);
+            return;
+        }
+        log.debug("Flushed {} equipment latest values", rows.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void apply(EquipmentData data) {
+        if (data.getEquipment() == null || data.getTimestamp() == null) {
+            return;
+        }
+
+        EquipmentLatest candidate = EquipmentLatest.builder()
+                .equipmentId(data.getEquipment().getId())
+                .status(data.getStatus())
+                .temperature(data.getTemperature())
+                .productionSpeed(data.getProductionSpeed())
+                .timestamp(data.getTimestamp())
+                .build();
+
+        boolean[] statusChanged = new boolean[1];
+        EquipmentLatest applied = latest.compute(candidate.getEquipmentId(), (id, current) -> {
+            EquipmentLatest next = current == null ? candidate : newer(current, candidate);
+            statusChanged[0] = next == candidate && (current == null || current.getStatus() != candidate.getStatus());
+            return next;
+        });
+
+        if (applied == candidate) {
+            dirty.add(candidate.getEquipmentId());
+            // temperature/speed reach clients over the equipment streams; bumping on every
+            // sample would keep the dashboard ETags from ever matching
+            if (statusChanged[0]) {
+                dataVersionService.bumpNow(DataVersionService.Domain.EQUIPMENT);
+            }
+        }
+    }
+
+    private EquipmentLatest newer(EquipmentLatest current, EquipmentLatest candidate) {
+        if (current.getTimestamp() == null) {
+            return candidate;
+        }
+        return candidate.getTimestamp().isBefore(current.getTimestamp()) ? current : candidate;
+    }
+}
@@ -0,0 +1,328 @@
+package com.mes.messystem.service;
+
+import com.mes.messystem.domain.EquipmentData;
+import com.mes.messystem.domain.EquipmentStateInterval;
+import com.mes.messystem.domain.EquipmentStatus;
+import com.mes.messystem.dto.EquipmentStateDurations;
+import com.mes.messystem.repository.EquipmentStateIntervalRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 설비 상태(RUN / IDLE / ALARM) 구간 추적.
+ * Each status change closes the open equipment_state_interval row and opens a new
+ * one, so only transitions are stored. Transitions are queued and written in one
+ * transaction per flush, off the ingest path. Time per status is accumulated in memory
+ * for the current shift and day; the last status counts until the next sample.
+ */
+@Slf4j
+@Service
+public class EquipmentStateTracker {
+
+    public enum Period {
+        SHIFT,
+        DAY
+    }
+
+    private static final EquipmentStatus[] STATUSES = EquipmentStatus.values();
+
+    private final EquipmentStateIntervalRepository intervalRepository;
+    private final ShiftCalendar shiftCalendar;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Tracked> tracked = new ConcurrentHashMap<>();
+
+    // transitions waiting to be written; retry holds a failed flush, oldest first
+    private final Queue<Transition> transitions = new ConcurrentLinkedQueue<>();
+    private final List<Transition> retry = new ArrayList<>();
+
+    // samples that commit before load() are held back, or load would add stored time on top of them
+    private final Object loadLock = new Object();
+    private List<EquipmentData> loadBuffer = new ArrayList<>();
+
+    public EquipmentStateTracker(EquipmentStateIntervalRepository intervalRepository,
+                                 ShiftCalendar shiftCalendar,
+                                 PlatformTransactionManager transactionManager) {
+        this.intervalRepository = intervalRepository;
+        this.shiftCalendar = shiftCalendar;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Restore open intervals and the current shift / day totals from stored intervals,
+     * then apply samples that arrived before; those older than the load are already
+     * covered by the stored intervals and are skipped as late
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (loadLock) {
+            restore();
+            List<EquipmentData> buffered = loadBuffer;
+            loadBuffer = null;
+            applyInOrder(buffered);
+        }
+        log.info("Equipment state tracker loaded: {} equipment", tracked.size());
+    }
+
+    private void restore() {
+        LocalDateTime now = LocalDateTime.now();
+        ShiftCalendar.Shift shift = shiftCalendar.shiftAt(now);
+        LocalDateTime dayStart = now.toLocalDate().atStartOfDay();
+        LocalDateTime from = shift.start().isBefore(dayStart) ? shift.start() : dayStart;
+
+        for (EquipmentStateInterval interval : intervalRepository.findAllOverlapping(from, now)) {
+            Tracked state = tracked.computeIfAbsent(interval.getEquipmentId(),
+                    id -> new Tracked(new Totals(shift, now.toLocalDate(), now)));
+            LocalDateTime end = interval.getEndedAt() != null ? interval.getEndedAt() : now;
+            int ordinal = interval.getStatus().ordinal();
+            state.totals.shiftMillis[ordinal] += overlapMillis(interval.getStartedAt(), end, shift.start(), now);
+            state.totals.dayMillis[ordinal] += overlapMillis(interval.getStartedAt(), end, dayStart, now);
+        }
+        for (EquipmentStateInterval open : intervalRepository.findByEndedAtIsNull()) {
+            Tracked state = tracked.computeIfAbsent(open.getEquipmentId(),
+                    id -> new Tracked(new Totals(shift, now.toLocalDate(), now)));
+            state.status = open.getStatus();
+            state.since = open.getStartedAt();
+        }
+    }
+
+    /**
+     * Track committed samples, oldest first so a batch is not treated as late
+     */
+    public void record(List<EquipmentData> samples) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (loadLock) {
+                if (loadBuffer != null) {
+                    loadBuffer.addAll(samples);
+                    return;
+                }
+            }
+            applyInOrder(samples);
+        });
+    }
+
+    /**
+     * Write queued transitions: close the equipment's open interval, open the next one
+     */
+    @Scheduled(fixedDelayString = "${mes.equipment.state-flush-ms:1000}")
+    public synchronized void flushTransitions() {
+        Transition transition;
+        while ((transition = transitions.poll()) != null) {
+            retry.add(transition);
+        }
+        if (retry.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                for (Transition pending : retry) {
+                    intervalRepository.closeOpen(pending.equipmentId(), pending.at());
+                    intervalRepository.save(EquipmentStateInterval.builder()
+                            .equipmentId(pending.equipmentId())
+                            .status(pending.status())
+                            .startedAt(pending.at())
+                            .build());
+                }
+            });
+            log.debug("Stored {} equipment state transitions", retry.size());
+            retry.clear();
+        } catch (Exception e) {
+            // totals stay correct; the transitions are retried on the next flush
+            log.error("Failed to store {} equipment state transitions", retry.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushTransitions();
+    }
+
+    /**
+     * Time per status in the current shift or day, including the open interval up to now
+     */
+    public EquipmentStateDurations getCurrent(Long equipmentId, Period period) {
+        LocalDateTime now = LocalDateTime.now();
+        Tracked state = tracked.get(equipmentId);
+
+        Totals totals;
+        EquipmentStatus status = null;
+        LocalDateTime since = null;
+        if (state != null) {
+            synchronized (state) {
+                totals = state.totals.copy();
+                status = state.status;
+                since = state.since;
+            }
+            advance(totals, status, now);
+        } else {
+            totals = new Totals(shiftCalendar.shiftAt(now), now.toLocalDate(), now);
+        }
+
+        boolean shift = period == Period.SHIFT;
+        return EquipmentStateDurations.builder()
+                .equipmentId(equipmentId)
+                .period(period.name())
+                .shiftNumber(shift ? totals.shift.number() : null)
+                .from(shift ? totals.shift.start() : totals.day.atStartOfDay())
+                .to(now)
+                .seconds(toSeconds(shift ? totals.shiftMillis : totals.dayMillis))
+                .currentStatus(status)
+                .currentSince(since)
+                .build();
+    }
+
+    public List<EquipmentStateDurations> getCurrentAll(Period period) {
+        return tracked.keySet().stream()
+                .sorted()
+                .map(equipmentId -> getCurrent(equipmentId, period))
+                .toList();
+    }
+
+    /**
+     * Time per status within [from, to), read from stored transitions only
+     */
+    public EquipmentStateDurations getRange(Long equipmentId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime now = LocalDateTime.now();
+        long[] millis = new long[STATUSES.length];
+        for (EquipmentStateInterval interval : intervalRepository.findOverlapping(equipmentId, from, to)) {
+            LocalDateTime end = interval.getEndedAt() != null ? interval.getEndedAt() : now;
+            millis[interval.getStatus().ordinal()] += overlapMillis(interval.getStartedAt(), end, from, to);
+        }
+
+        return EquipmentStateDurations.builder()
+                .equipmentId(equipmentId)
+                .period("RANGE")
+                .from(from)
+                .to(to)
+                .seconds(toSeconds(millis))
+                .build();
+    }
+
+    private void applyInOrder(List<EquipmentData> samples) {
+        samples.stream()
+                .filter(data -> data.getTimestamp() != null)
+                .sorted(Comparator.comparing(EquipmentData::getTimestamp))
+                .forEach(this::apply);
+    }
+
+    private void apply(EquipmentData data) {
+        if (data.getEquipment() == null || data.getStatus() == null || data.getTimestamp() == null) {
+            return;
+        }
+
+        LocalDateTime at = data.getTimestamp();
+        Tracked state = tracked.computeIfAbsent(data.getEquipment().getId(),
+                id -> new Tracked(new Totals(shiftCalendar.shiftAt(at), at.toLocalDate(), at)));
+
+        synchronized (state) {
+            // late samples cannot rewrite time that is already accounted
+            if (at.isBefore(state.totals.accountedUntil)) {
+                return;
+            }
+            advance(state.totals, state.status, at);
+
+            if (data.getStatus() == state.status) {
+                return;
+            }
+            transitions.add(new Transition(data.getEquipment().getId(), data.getStatus(), at));
+            state.status = data.getStatus();
+            state.since = at;
+        }
+    }
+
+    /**
+     * Add time in the given status up to until, rolling shift and day buckets at their boundaries
+     */
+    private void advance(Totals totals, EquipmentStatus status, LocalDateTime until) {
+        while (totals.accountedUntil.isBefore(until)) {
+            LocalDateTime nextDay = totals.day.plusDays(1).atStartOfDay();
+            LocalDateTime boundary = until;
+            if (totals.shift.end().isBefore(boundary)) {
+                boundary = totals.shift.end();
+            }
+            if (nextDay.isBefore(boundary)) {
+                boundary = nextDay;
+            }
+
+            if (status != null) {
+                long millis = Duration.between(totals.accountedUntil, boundary).toMillis();
+                totals.shiftMillis[status.ordinal()] += millis;
+                totals.dayMillis[status.ordinal()] += millis;
+            }
+            totals.accountedUntil = boundary;
+
+            if (!boundary.isBefore(totals.shift.end())) {
+                totals.shift = shiftCalendar.shiftAt(boundary);
+                Arrays.fill(totals.shiftMillis, 0);
+            }
+            if (!boundary.isBefore(nextDay)) {
+                totals.day = nextDay.toLocalDate();
+                Arrays.fill(totals.dayMillis, 0);
+            }
+        }
+    }
+
+    private static long overlapMillis(LocalDateTime start, LocalDateTime end, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime a = start.isAfter(from) ? start : from;
+        LocalDateTime b = end.isBefore(to) ? end : to;
+        return a.isBefore(b) ? Duration.between(a, b).toMillis() : 0;
+    }
+
+    private static Map<EquipmentStatus, Long> toSeconds(long[] millis) {
+        Map<EquipmentStatus, Long> seconds = new EnumMap<>(EquipmentStatus.class);
+        for (EquipmentStatus status : STATUSES) {
+            seconds.put(status, millis[status.ordinal()] / 1000);
+        }
+        return seconds;
+    }
+
+    private record Transition(Long equipmentId, EquipmentStatus status, LocalDateTime at) {}
+
+    private static final class Tracked {
+        private final Totals totals;
+        private EquipmentStatus status;
+        private LocalDateTime since;
+
+        private Tracked(Totals totals) {
+            this.totals = totals;
+        }
+    }
+
+    /**
+     * Per-status milliseconds for the current shift and day
+     */
+    private static final class Totals {
+        private ShiftCalendar.Shift shift;
+        private LocalDate day;
+        private final long[] shiftMillis = new long[STATUSES.length];
+        private final long[] dayMillis = new long[STATUSES.length];
+        private LocalDateTime accountedUntil;
+
+        private Totals(ShiftCalendar.Shift shift, LocalDate day, LocalDateTime accountedUntil) {
+            this.shift = shift;
+            this.day = day;
+            this.accountedUntil = accountedUntil;
+        }
+
+        private Totals copy() {
+            Totals copy = new Totals(shift, day, accountedUntil);
+            System.arraycopy(shiftMillis, 0, copy.shiftMillis, 0, shiftMillis.length);
+            System.arraycopy(dayMillis, 0, copy.dayMillis, 0, dayMillis.length);
+            return copy;
+        }
+    }
+}
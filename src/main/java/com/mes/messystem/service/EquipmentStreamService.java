@@ -0,0 +1,68 @@
+package com.mes.messystem.service;
+
+import com.mes.messystem.domain.Equipment;
+import com.mes.messystem.domain.EquipmentLatest;
+import com.mes.messystem.dto.EquipmentStatusSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Per-equipment live telemetry over SSE (topic "equipment:{id}").
+ * Committed samples are pushed as they arrive, serialized once per sample and
+ * only when the equipment has viewers; any number of viewers share a topic.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EquipmentStreamService {
+
+    private static final String TOPIC_PREFIX = "equipment:";
+    private static final String EVENT = "equipment-data";
+
+    private final SseHub sseHub;
+    private final EquipmentLatestService equipmentLatestService;
+
+    /**
+     * Subscribe to one equipment; the last known value is sent first
+     */
+    public SseEmitter connect(Equipment equipment) {
+        return sseHub.connect(topic(equipment.getId()), connection -> {
+            EquipmentLatest latest = equipmentLatestService.get(equipment.getId());
+            if (latest == null) {
+                return;
+            }
+            sseHub.send(connection, sseHub.message(EVENT, EquipmentStatusSummary.builder()
+                    .equipmentId(equipment.getId())
+                    .equipmentName(equipment.getName())
+                    .location(equipment.getLocation())
+                    .status(latest.getStatus())
+                    .temperature(latest.getTemperature())
+                    .productionSpeed(latest.getProductionSpeed())
+                    .lastUpdated(latest.getTimestamp())
+                    .build()));
+        });
+    }
+
+    /**
+     * Push a sample to the equipment's viewers once the surrounding transaction commits
+     */
+    public void publish(EquipmentStatusSummary summary) {
+        String topic = topic(summary.getEquipmentId());
+        if (!sseHub.hasSubscribers(topic)) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                sseHub.publish(topic, sseHub.message(EVENT, summary));
+            } catch (Exception e) {
+                log.warn("Equipment stream publish failed for {}: {}", summary.getEquipmentId(), e.getMessage());
+            }
+        });
+    }
+
+    private static String topic(Long equipmentId) {
+        return TOPIC_PREFIX + equipmentId;
+    }
+}
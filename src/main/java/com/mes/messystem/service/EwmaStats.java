@@ -0,0 +1,62 @@
+package com.mes.messystem.service;
+
+/**
+ * Exponentially weighted mean and variance of one signal, plus a slower baseline mean.
+ * Four primitives of state; each update is O(1).
+ */
+public final class EwmaStats {
+
+    private final double alpha;
+    private final double baselineAlpha;
+
+    private double mean;
+    private double variance;
+    private double baseline;
+    private long count;
+
+    public EwmaStats(double alpha, double baselineAlpha) {
+        this.alpha = alpha;
+        this.baselineAlpha = baselineAlpha;
+    }
+
+    /**
+     * Score a value against the state before it, then fold it in
+     * @return z-score of the value; 0 for the first sample
+     */
+    public double update(double value, double minStddev) {
+        if (count++ == 0) {
+            mean = value;
+            baseline = value;
+            variance = 0;
+            return 0;
+        }
+
+        double z = (value - mean) / stddev(minStddev);
+
+        double diff = value - mean;
+        double increment = alpha * diff;
+        mean += increment;
+        variance = (1 - alpha) * (variance + diff * increment);
+        baseline += baselineAlpha * (value - baseline);
+        return z;
+    }
+
+    /**
+     * How far the fast mean has moved from the slow baseline, in standard deviations
+     */
+    public double drift(double minStddev) {
+        return count == 0 ? 0 : (mean - baseline) / stddev(minStddev);
+    }
+
+    public double mean() {
+        return mean;
+    }
+
+    public double stddev(double minStddev) {
+        return Math.max(Math.sqrt(variance), minStddev);
+    }
+
+    public long count() {
+        return count;
+    }
+}
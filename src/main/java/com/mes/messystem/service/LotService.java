@@ -26,6 +26,9 @@ public class LotService {
     private final WorkOrderRepository workOrderRepository;
     private final ProcessRepository processRepository;
     private final EquipmentRepository equipmentRepository;
+    private final ProductionCounterService productionCounterService;
+    private final OeeService oeeService;
+    private final DataVersionService dataVersionService;
 
     /**
      * LOT 번호 생성: LOT-YYYYMMDD-XXXX
@@ -61,6 +64,7 @@ public class LotService {
                 .build();
 
         lot = lotRepository.save(lot);
+        dataVersionService.bump(DataVersionService.Domain.PRODUCTION, DataVersionService.Domain.WORK_ORDER);
         log.info("Created new LOT: {}", lot.getLotNumber());
 
         return convertToResponse(lot);
@@ -110,6 +114,7 @@ public class LotService {
         }
 
         lot = lotRepository.save(lot);
+        dataVersionService.bump(DataVersionService.Domain.PRODUCTION, DataVersionService.Domain.WORK_ORDER);
         log.info("Updated LOT status: {} -> {}", lot.getLotNumber(), status);
 
         return convertToResponse(lot);
@@ -142,6 +147,10 @@ public class LotService {
                 .build();
 
         history = lotHistoryRepository.save(history);
+        productionCounterService.record(history.getId(), history.getProcessedAt(),
+                history.getOutputQuantity(), history.getDefectQuantity());
+        oeeService.record(history);
+        dataVersionService.bump(DataVersionService.Domain.PRODUCTION, DataVersionService.Domain.WORK_ORDER);
 
         // LOT 상태 자동 업데이트
         if (lot.getStatus() == LotStatus.CREATED) {
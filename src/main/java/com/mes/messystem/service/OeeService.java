@@ -0,0 +1,337 @@
+package com.mes.messystem.service;
+
+import com.mes.messystem.domain.Equipment;
+import com.mes.messystem.domain.EquipmentStatus;
+import com.mes.messystem.domain.LotHistory;
+import com.mes.messystem.domain.ProcessRouting;
+import com.mes.messystem.dto.EquipmentStateDurations;
+import com.mes.messystem.dto.OeeSummary;
+import com.mes.messystem.repository.EquipmentRepository;
+import com.mes.messystem.repository.LotHistoryRepository;
+import com.mes.messystem.repository.ProcessRoutingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 현재 교대 기준 OEE 집계.
+ * Availability = RUN time / tracked time (EquipmentStateTracker),
+ * Performance = routing standard time x processed quantity / RUN time,
+ * Quality = output / (output + defect) from LotHistory.
+ * Quantities are kept as running totals per equipment and line for the current
+ * shift, so reads never scan history; the totals are rebuilt on startup.
+ * Records that commit while a rebuild is running are buffered and replayed unless the
+ * rebuild query already returned their history id, so they are neither lost nor counted twice.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OeeService {
+
+    private static final String UNASSIGNED_LINE = "UNASSIGNED";
+
+    private final LotHistoryRepository lotHistoryRepository;
+    private final ProcessRoutingRepository processRoutingRepository;
+    private final EquipmentRepository equipmentRepository;
+    private final EquipmentStateTracker equipmentStateTracker;
+    private final ShiftCalendar shiftCalendar;
+
+    // reference data, replaced as a whole on refresh
+    private volatile Map<String, Integer> standardMinutes = Map.of();
+    private volatile Map<Long, EquipmentRef> equipmentRefs = Map.of();
+
+    private ShiftCalendar.Shift shift;
+    private final Map<Long, Counts> byEquipment = new HashMap<>();
+    private final Map<String, Counts> byLine = new HashMap<>();
+    private final Counts plant = new Counts();
+    private List<Recorded> rebuildBuffer;   // non-null while rebuild() runs
+
+    /**
+     * Load routings and equipment, then rebuild the current shift's quantities from LotHistory
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            rebuildBuffer = new ArrayList<>();
+        }
+
+        List<LotHistoryRepository.RoutingHistoryQuantity> rows = List.of();
+        ShiftCalendar.Shift current = shiftCalendar.shiftAt(LocalDateTime.now());
+        try {
+            refreshReferences();
+            rows = lotHistoryRepository.findRoutingQuantitiesBetween(current.start(), current.end());
+        } finally {
+            synchronized (this) {
+                reset(current);
+                // ids commit out of order, so only the ids actually read tell what the query covered
+                Set<Long> seen = new HashSet<>();
+                for (LotHistoryRepository.RoutingHistoryQuantity row : rows) {
+                    seen.add(row.getId());
+                    EquipmentRef ref = equipmentRefs.get(row.getEquipmentId());
+                    add(row.getEquipmentId(), ref != null ? ref.line() : UNASSIGNED_LINE,
+                            row.getProductId(), row.getProcessId(),
+                            row.getOutputQuantity() != null ? row.getOutputQuantity() : 0,
+                            row.getDefectQuantity() != null ? row.getDefectQuantity() : 0);
+                }
+
+                List<Recorded> buffered = rebuildBuffer;
+                rebuildBuffer = null;
+                for (Recorded recorded : buffered) {
+                    if (!seen.contains(recorded.id())) {
+                        apply(recorded);
+                    }
+                }
+            }
+        }
+
+        log.info("OEE totals rebuilt for shift {} starting {}: {} histories",
+                current.number(), current.start(), rows.size());
+    }
+
+    /**
+     * Reload routing standard times and equipment lines; both change rarely
+     */
+    @Scheduled(fixedDelayString = "${mes.oee.reference-refresh-ms:300000}",
+            initialDelayString = "${mes.oee.reference-refresh-ms:300000}")
+    public void refreshReferences() {
+        Map<String, Integer> minutes = new HashMap<>();
+        for (ProcessRouting routing : processRoutingRepository.findAll()) {
+            if (routing.getProduct() == null || routing.getProcess() == null || routing.getStandardTime() == null) {
+                continue;
+            }
+            Long equipmentId = routing.getEquipment() != null ? routing.getEquipment().getId() : null;
+            minutes.put(routingKey(routing.getProduct().getId(), routing.getProcess().getId(), equipmentId),
+                    routing.getStandardTime());
+            // fallback for histories on equipment the routing does not name
+            minutes.putIfAbsent(routingKey(routing.getProduct().getId(), routing.getProcess().getId(), null),
+                    routing.getStandardTime());
+        }
+
+        Map<Long, EquipmentRef> refs = new HashMap<>();
+        for (Equipment equipment : equipmentRepository.findAll()) {
+            refs.put(equipment.getId(), EquipmentRef.of(equipment));
+        }
+
+        standardMinutes = minutes;
+        equipmentRefs = refs;
+    }
+
+    /**
+     * Record processed quantities. Applied after commit when called inside a transaction.
+     */
+    public void record(LotHistory history) {
+        if (history.getEquipment() == null || history.getLot() == null || history.getProcessedAt() == null) {
+            return;
+        }
+
+        Recorded recorded = new Recorded(
+                history.getId(),
+                history.getEquipment().getId(),
+                EquipmentRef.of(history.getEquipment()).line(),
+                history.getLot().getProduct() != null ? history.getLot().getProduct().getId() : null,
+                history.getProcess() != null ? history.getProcess().getId() : null,
+                history.getProcessedAt(),
+                history.getOutputQuantity() != null ? history.getOutputQuantity() : 0,
+                history.getDefectQuantity() != null ? history.getDefectQuantity() : 0);
+
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                if (rebuildBuffer != null) {
+                    rebuildBuffer.add(recorded);
+                    return;
+                }
+                apply(recorded);
+            }
+        });
+    }
+
+    public OeeSummary getPlant() {
+        Counts counts;
+        synchronized (this) {
+            rollOverIfNeeded(LocalDateTime.now());
+            counts = plant.copy();
+        }
+
+        long run = 0;
+        long tracked = 0;
+        for (EquipmentStateDurations durations : equipmentStateTracker.getCurrentAll(EquipmentStateTracker.Period.SHIFT)) {
+            run += runSeconds(durations);
+            tracked += trackedSeconds(durations);
+        }
+        return summarize("PLANT", "ALL", "Plant", counts, run, tracked);
+    }
+
+    public List<OeeSummary> getByLine() {
+        Map<String, Counts> counts = new TreeMap<>();
+        synchronized (this) {
+            rollOverIfNeeded(LocalDateTime.now());
+            byLine.forEach((line, lineCounts) -> counts.put(line, lineCounts.copy()));
+        }
+
+        Map<String, long[]> times = new HashMap<>();
+        for (EquipmentStateDurations durations : equipmentStateTracker.getCurrentAll(EquipmentStateTracker.Period.SHIFT)) {
+            EquipmentRef ref = equipmentRefs.get(durations.getEquipmentId());
+            String line = ref != null ? ref.line() : UNASSIGNED_LINE;
+            long[] time = times.computeIfAbsent(line, key -> new long[2]);
+            time[0] += runSeconds(durations);
+            time[1] += trackedSeconds(durations);
+            counts.putIfAbsent(line, new Counts());
+        }
+
+        List<OeeSummary> result = new ArrayList<>();
+        counts.forEach((line, lineCounts) -> {
+            long[] time = times.getOrDefault(line, new long[2]);
+            result.add(summarize("LINE", line, line, lineCounts, time[0], time[1]));
+        });
+        return result;
+    }
+
+    public List<OeeSummary> getByEquipment() {
+        Map<Long, Counts> counts = new TreeMap<>();
+        synchronized (this) {
+            rollOverIfNeeded(LocalDateTime.now());
+            byEquipment.forEach((equipmentId, equipmentCounts) -> counts.put(equipmentId, equipmentCounts.copy()));
+        }
+
+        Map<Long, EquipmentStateDurations> durations = new HashMap<>();
+        for (EquipmentStateDurations equipmentDurations : equipmentStateTracker.getCurrentAll(EquipmentStateTracker.Period.SHIFT)) {
+            durations.put(equipmentDurations.getEquipmentId(), equipmentDurations);
+            counts.putIfAbsent(equipmentDurations.getEquipmentId(), new Counts());
+        }
+
+        List<OeeSummary> result = new ArrayList<>();
+        counts.forEach((equipmentId, equipmentCounts) -> {
+            EquipmentStateDurations time = durations.get(equipmentId);
+            EquipmentRef ref = equipmentRefs.get(equipmentId);
+            result.add(summarize("EQUIPMENT", String.valueOf(equipmentId), ref != null ? ref.name() : null,
+                    equipmentCounts, time != null ? runSeconds(time) : 0, time != null ? trackedSeconds(time) : 0));
+        });
+        return result;
+    }
+
+    private void apply(Recorded recorded) {
+        rollOverIfNeeded(LocalDateTime.now());
+        if (!shift.contains(recorded.processedAt())) {
+            return;
+        }
+        add(recorded.equipmentId(), recorded.line(), recorded.productId(), recorded.processId(),
+                recorded.output(), recorded.defect());
+    }
+
+    private void add(Long equipmentId, String line, Long productId, Long processId, long output, long defect) {
+        Integer minutes = standardMinutes.get(routingKey(productId, processId, equipmentId));
+        if (minutes == null) {
+            minutes = standardMinutes.get(routingKey(productId, processId, null));
+        }
+        double ideal = minutes != null ? minutes * 60.0 * (output + defect) : 0;
+
+        byEquipment.computeIfAbsent(equipmentId, key -> new Counts()).add(output, defect, ideal);
+        byLine.computeIfAbsent(line, key -> new Counts()).add(output, defect, ideal);
+        plant.add(output, defect, ideal);
+    }
+
+    private void rollOverIfNeeded(LocalDateTime now) {
+        if (shift == null || !shift.contains(now)) {
+            ShiftCalendar.Shift next = shiftCalendar.shiftAt(now);
+            if (shift != null) {
+                log.info("OEE totals rolled over: shift {} -> {}", shift.start(), next.start());
+            }
+            reset(next);
+        }
+    }
+
+    private void reset(ShiftCalendar.Shift next) {
+        shift = next;
+        byEquipment.clear();
+        byLine.clear();
+        plant.clear();
+    }
+
+    private OeeSummary summarize(String scope, String key, String name, Counts counts, long run, long tracked) {
+        long total = counts.goodQty + counts.defectQty;
+        double availability = tracked > 0 ? (double) run / tracked : 0.0;
+        double performance = run > 0 ? Math.min(counts.idealSeconds / run, 1.0) : 0.0;
+        double quality = total > 0 ? (double) counts.goodQty / total : 0.0;
+
+        ShiftCalendar.Shift current;
+        synchronized (this) {
+            current = shift;
+        }
+        return OeeSummary.builder()
+                .scope(scope)
+                .key(key)
+                .name(name)
+                .shiftNumber(current.number())
+                .shiftStart(current.start())
+                .runSeconds(run)
+                .trackedSeconds(tracked)
+                .goodQty(counts.goodQty)
+                .defectQty(counts.defectQty)
+                .idealSeconds(counts.idealSeconds)
+                .availability(percent(availability))
+                .performance(percent(performance))
+                .quality(percent(quality))
+                .oee(percent(availability * performance * quality))
+                .build();
+    }
+
+    private static long runSeconds(EquipmentStateDurations durations) {
+        return durations.getSeconds().getOrDefault(EquipmentStatus.RUN, 0L);
+    }
+
+    private static long trackedSeconds(EquipmentStateDurations durations) {
+        return durations.getSeconds().values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static double percent(double ratio) {
+        return Math.round(ratio * 10000.0) / 100.0;
+    }
+
+    private static String routingKey(Long productId, Long processId, Long equipmentId) {
+        return productId + ":" + processId + ":" + (equipmentId != null ? equipmentId : "*");
+    }
+
+    private record Recorded(Long id, Long equipmentId, String line, Long productId, Long processId,
+                            LocalDateTime processedAt, long output, long defect) {}
+
+    private record EquipmentRef(String name, String line) {
+        static EquipmentRef of(Equipment equipment) {
+            String location = equipment.getLocation();
+            return new EquipmentRef(equipment.getName(),
+                    location != null && !location.isBlank() ? location : UNASSIGNED_LINE);
+        }
+    }
+
+    /**
+     * Running quantities for one scope within the current shift
+     */
+    private static final class Counts {
+        private long goodQty;
+        private long defectQty;
+        private double idealSeconds;
+
+        private void add(long good, long defect, double ideal) {
+            goodQty += good;
+            defectQty += defect;
+            idealSeconds += ideal;
+        }
+
+        private void clear() {
+            goodQty = 0;
+            defectQty = 0;
+            idealSeconds = 0;
+        }
+
+        private Counts copy() {
+            Counts copy = new Counts();
+            copy.add(goodQty, defectQty, idealSeconds);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.mes.messystem.service;
+
+import com.mes.messystem.dto.TodayProductionStats;
+import com.mes.messystem.repository.LotHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * In-memory counters for today's production.
+ * Updated by LotService when history is added, rolled over at midnight
+ * and rebuilt from a processedAt range query on startup.
+ * Records committed during a rebuild are buffered and replayed unless the rebuild
+ * query already returned their history id.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductionCounterService {
+
+    private final LotHistoryRepository lotHistoryRepository;
+
+    // replaceable in tests to cross midnight
+    private Clock clock = Clock.systemDefaultZone();
+
+    private LocalDate day = LocalDate.now(clock);
+    private long goodQty;
+    private long badQty;
+    private List<Recorded> rebuildBuffer;   // non-null while rebuild() runs
+
+    /**
+     * Rebuild today's counters from LotHistory
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            rebuildBuffer = new ArrayList<>();
+        }
+
+        LocalDate today = LocalDate.now(clock);
+        List<LotHistoryRepository.HistoryQuantity> rows = List.of();
+        try {
+            rows = lotHistoryRepository.findQuantitiesBetween(today.atStartOfDay(), today.plusDays(1).atStartOfDay());
+        } finally {
+            synchronized (this) {
+                day = today;
+                goodQty = 0;
+                badQty = 0;
+                // ids commit out of order, so only the ids actually read tell what the query covered
+                Set<Long> seen = new HashSet<>();
+                for (LotHistoryRepository.HistoryQuantity row : rows) {
+                    seen.add(row.getId());
+                    goodQty += row.getOutputQuantity() != null ? row.getOutputQuantity() : 0;
+                    badQty += row.getDefectQuantity() != null ? row.getDefectQuantity() : 0;
+                }
+
+                List<Recorded> buffered = rebuildBuffer;
+                rebuildBuffer = null;
+                for (Recorded recorded : buffered) {
+                    if (!seen.contains(recorded.id())) {
+                        add(recorded);
+                    }
+                }
+            }
+        }
+
+        log.info("Production counters rebuilt for {} from {} histories", today, rows.size());
+    }
+
+    /**
+     * Record processed quantities. Applied after commit when called inside a transaction.
+     */
+    public void record(Long historyId, LocalDateTime processedAt, Integer outputQuantity, Integer defectQuantity) {
+        if (processedAt == null) {
+            return;
+        }
+
+        Recorded recorded = new Recorded(historyId, processedAt,
+                outputQuantity != null ? outputQuantity : 0, defectQuantity != null ? defectQuantity : 0);
+        TransactionCallbacks.afterCommit(() -> apply(recorded));
+    }
+
+    /**
+     * Reset counters at midnight
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public synchronized void rollOver() {
+        rollOverIfNeeded(LocalDate.now(clock));
+    }
+
+    public synchronized TodayProductionStats getTodayStats() {
+        rollOverIfNeeded(LocalDate.now(clock));
+
+        int total = (int) (goodQty + badQty);
+        double defectRate = total > 0 ? (double) badQty / total * 100 : 0.0;
+
+        return TodayProductionStats.builder()
+                .totalGoodQty((int) goodQty)
+                .totalBadQty((int) badQty)
+                .totalQty(total)
+                .defectRate(defectRate)
+                .build();
+    }
+
+    private synchronized void apply(Recorded recorded) {
+        if (rebuildBuffer != null) {
+            rebuildBuffer.add(recorded);
+            return;
+        }
+        add(recorded);
+    }
+
+    private void add(Recorded recorded) {
+        rollOverIfNeeded(LocalDate.now(clock));
+
+        if (!recorded.processedAt().toLocalDate().equals(day)) {
+            return;
+        }
+
+        goodQty += recorded.output();
+        badQty += recorded.defect();
+    }
+
+    private void rollOverIfNeeded(LocalDate today) {
+        if (today.isAfter(day)) {
+            log.info("Production counters rolled over: {} -> {}", day, today);
+            day = today;
+            goodQty = 0;
+            badQty = 0;
+        }
+    }
+
+    synchronized void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    private record Recorded(Long id, LocalDateTime processedAt, long output, long defect) {}
+}
@@ -25,6 +25,7 @@ public class QualityInspectionService {
     private final InspectionItemRepository itemRepository;
     private final LotRepository lotRepository;
     private final ProcessRepository processRepository;
+    private final DataVersionService dataVersionService;
 
     /**
      * 검사 번호 생성: INS-YYYYMMDD-XXXX
@@ -65,6 +66,7 @@ public class QualityInspectionService {
                 .build();
 
         inspection = inspectionRepository.save(inspection);
+        dataVersionService.bump(DataVersionService.Domain.QUALITY);
 
         // 검사 항목 추가
         if (request.getItems() != null && !request.getItems().isEmpty()) {
@@ -116,6 +118,7 @@ public class QualityInspectionService {
         inspection.setFailedCount(failedCount);
 
         inspection = inspectionRepository.save(inspection);
+        dataVersionService.bump(DataVersionService.Domain.QUALITY);
         log.info("Completed inspection: {} - Result: {}", inspection.getInspectionNumber(), result);
 
         return convertToResponse(inspection);
@@ -0,0 +1,78 @@
+package com.mes.messystem.service;
+
+import com.mes.messystem.domain.EquipmentData;
+import com.mes.messystem.dto.RecentTelemetry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recent telemetry per equipment in primitive ring buffers, for live charts.
+ * Ring size is derived from a memory budget shared by up to max-equipment rings.
+ */
+@Slf4j
+@Service
+public class RecentTelemetryService {
+
+    private final int ringCapacity;
+    private final int maxEquipment;
+    private final Map<Long, TelemetryRing> rings = new ConcurrentHashMap<>();
+
+    public RecentTelemetryService(@Value("${mes.equipment.recent.memory-budget-bytes:16777216}") long memoryBudgetBytes,
+                                  @Value("${mes.equipment.recent.max-equipment:500}") int maxEquipment) {
+        this.maxEquipment = maxEquipment;
+        this.ringCapacity = (int) Math.max(16,
+                Math.min(Integer.MAX_VALUE, memoryBudgetBytes / ((long) maxEquipment * TelemetryRing.BYTES_PER_SAMPLE)));
+        log.info("Recent telemetry rings: {} samples each for up to {} equipment", ringCapacity, maxEquipment);
+    }
+
+    /**
+     * Append committed samples to their equipment's ring
+     */
+    public void record(List<EquipmentData> samples) {
+        TransactionCallbacks.afterCommit(() -> samples.forEach(this::append));
+    }
+
+    /**
+     * Samples from the last window for one equipment
+     */
+    public RecentTelemetry getRecent(Long equipmentId, Duration window) {
+        TelemetryRing ring = rings.get(equipmentId);
+        TelemetryRing.Window recent = ring != null
+                ? ring.since(System.currentTimeMillis() - window.toMillis())
+                : new TelemetryRing.Window(new long[0], new double[0], new int[0]);
+
+        return RecentTelemetry.builder()
+                .equipmentId(equipmentId)
+                .capacity(ringCapacity)
+                .timestamps(recent.timestamps())
+                .temperatures(recent.temperatures())
+                .productionSpeeds(recent.speeds())
+                .build();
+    }
+
+    private void append(EquipmentData data) {
+        if (data.getEquipment() == null || data.getTimestamp() == null) {
+            return;
+        }
+
+        TelemetryRing ring = rings.get(data.getEquipment().getId());
+        if (ring == null) {
+            if (rings.size() >= maxEquipment) {
+                log.debug("Recent telemetry budget full, not tracking equipment {}", data.getEquipment().getId());
+                return;
+            }
+            ring = rings.computeIfAbsent(data.getEquipment().getId(), id -> new TelemetryRing(ringCapacity));
+        }
+
+        ring.add(data.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                data.getTemperature() != null ? data.getTemperature() : Double.NaN,
+                data.getProductionSpeed() != null ? data.getProductionSpeed() : TelemetryRing.NO_SPEED);
+    }
+}
@@ -0,0 +1,63 @@
+package com.mes.messystem.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * 교대 근무 시간표 (mes.shift.starts, e.g. 06:00,14:00,22:00).
+ * A shift runs from its start until the next start, possibly past midnight.
+ */
+@Component
+public class ShiftCalendar {
+
+    private final LocalTime[] starts;
+
+    public ShiftCalendar(@Value("${mes.shift.starts:06:00,14:00,22:00}") String[] starts) {
+        this.starts = Arrays.stream(starts)
+                .map(String::trim)
+                .map(LocalTime::parse)
+                .sorted()
+                .distinct()
+                .toArray(LocalTime[]::new);
+        if (this.starts.length == 0) {
+            throw new IllegalArgumentException("mes.shift.starts must list at least one start time");
+        }
+    }
+
+    /**
+     * Shift containing the given time
+     */
+    public Shift shiftAt(LocalDateTime time) {
+        LocalTime clock = time.toLocalTime();
+        for (int i = starts.length - 1; i >= 0; i--) {
+            if (!clock.isBefore(starts[i])) {
+                return shift(time.toLocalDate().atTime(starts[i]), i);
+            }
+        }
+        // before the first start: still in the previous day's last shift
+        int last = starts.length - 1;
+        return shift(time.toLocalDate().minusDays(1).atTime(starts[last]), last);
+    }
+
+    private Shift shift(LocalDateTime start, int index) {
+        int next = (index + 1) % starts.length;
+        LocalDateTime end = next == 0
+                ? start.toLocalDate().plusDays(1).atTime(starts[0])
+                : start.toLocalDate().atTime(starts[next]);
+        return new Shift(index + 1, start, end);
+    }
+
+    /**
+     * One shift occurrence; number is 1-based within the day it starts on
+     */
+    public record Shift(int number, LocalDateTime start, LocalDateTime end) {
+
+        public boolean contains(LocalDateTime time) {
+            return !time.isBefore(start) && time.isBefore(end);
+        }
+    }
+}
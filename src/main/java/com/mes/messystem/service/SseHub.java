@@ -0,0 +1,317 @@
+package com.mes.messystem.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mes.messystem.dto.SseHubMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Topic based SSE broadcast hub.
+ * Payloads are serialized once per publish and queued per connection; a fixed pool of
+ * virtual send threads drains the queues, one connection at a time per thread.
+ * A connection whose queue overflows is evicted; one whose write stalls past the send
+ * timeout is evicted and its send thread interrupted, so a slow client cannot hold a
+ * send thread or the other clients back.
+ */
+@Slf4j
+@Service
+public class SseHub {
+
+    private final ObjectMapper objectMapper;
+    private final int connectionQueueCapacity;
+
+    private final Map<String, Set<SseConnection>> topics = new ConcurrentHashMap<>();
+    private final long sendTimeoutNanos;
+    private final ThreadPoolExecutor sendExecutor;
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+            runnable -> new Thread(runnable, "sse-heartbeat"));
+
+    private final LongAdder eventsSent = new LongAdder();
+    private final LongAdder evictedConnections = new LongAdder();
+    private final LongAdder sendLatencyNanos = new LongAdder();
+    private final AtomicLong maxSendLatencyNanos = new AtomicLong();
+
+    private static final SseMessage HEARTBEAT = new SseMessage(null, null, null);
+
+    public SseHub(ObjectMapper objectMapper,
+                  @Value("${mes.sse.send-threads:32}") int sendThreads,
+                  @Value("${mes.sse.connection-queue-capacity:32}") int connectionQueueCapacity,
+                  @Value("${mes.sse.send-timeout-ms:10000}") long sendTimeoutMs,
+                  @Value("${mes.sse.heartbeat-ms:15000}") long heartbeatMs) {
+        this.objectMapper = objectMapper;
+        this.connectionQueueCapacity = connectionQueueCapacity;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        // at most one queued task per connection (see scheduleDrain), so the task queue is bounded by connections
+        this.sendExecutor = new ThreadPoolExecutor(sendThreads, sendThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), Thread.ofVirtual().name("sse-send-", 0).factory());
+
+        ticker.scheduleAtFixedRate(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        long checkMs = Math.max(100, Math.min(sendTimeoutMs / 2, 1000));
+        ticker.scheduleAtFixedRate(this::evictStalled, checkMs, checkMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open a connection on a topic. onOpen runs before the emitter is returned
+     * and may queue initial messages.
+     */
+    public SseEmitter connect(String topic, Consumer<SseConnection> onOpen) {
+        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
+        SseConnection connection = new SseConnection(topic, emitter, connectionQueueCapacity);
+
+        // compute, not computeIfAbsent + add, so remove() cannot drop the set in between
+        topics.compute(topic, (key, connections) -> {
+            Set<SseConnection> set = connections != null ? connections : ConcurrentHashMap.newKeySet();
+            set.add(connection);
+            return set;
+        });
+
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(e -> {
+            remove(connection);
+            log.debug("SSE connection error on {}: {}", topic, e.getMessage());
+        });
+
+        log.info("SSE connection opened on {}. Total connections: {}", topic, connectionCount());
+
+        onOpen.accept(connection);
+        return emitter;
+    }
+
+    /**
+     * Serialize a payload once for any number of connections
+     */
+    public SseMessage message(String name, Object payload) {
+        return message(name, null, payload);
+    }
+
+    public SseMessage message(String name, String id, Object payload) {
+        try {
+            return new SseMessage(name, id, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize SSE payload", e);
+        }
+    }
+
+    public void publish(String topic, SseMessage message) {
+        publish(topic, connection -> message);
+    }
+
+    /**
+     * Publish with a per-connection choice of message; null skips the connection
+     */
+    public void publish(String topic, Function<SseConnection, SseMessage> selector) {
+        Set<SseConnection> connections = topics.get(topic);
+        if (connections == null) {
+            return;
+        }
+        for (SseConnection connection : connections) {
+            SseMessage message = selector.apply(connection);
+            if (message != null) {
+                send(connection, message);
+            }
+        }
+    }
+
+    public void send(SseConnection connection, SseMessage message) {
+        if (connection.closed) {
+            return;
+        }
+        if (!connection.queue.offer(new Pending(message, System.nanoTime()))) {
+            evict(connection);
+            return;
+        }
+        scheduleDrain(connection);
+    }
+
+    public boolean hasSubscribers(String topic) {
+        Set<SseConnection> connections = topics.get(topic);
+        return connections != null && !connections.isEmpty();
+    }
+
+    public int connectionCount() {
+        return topics.values().stream().mapToInt(Set::size).sum();
+    }
+
+    public SseHubMetrics getMetrics() {
+        Map<String, Integer> byTopic = new TreeMap<>();
+        topics.forEach((topic, connections) -> {
+            if (!connections.isEmpty()) {
+                byTopic.put(topic, connections.size());
+            }
+        });
+
+        long sent = eventsSent.sum();
+        return SseHubMetrics.builder()
+                .connections(connectionCount())
+                .connectionsByTopic(byTopic)
+                .eventsSent(sent)
+                .evictedConnections(evictedConnections.sum())
+                .pendingSendTasks(sendExecutor.getQueue().size())
+                .avgSendLatencyMs(sent > 0 ? sendLatencyNanos.sum() / (double) sent / 1_000_000 : 0.0)
+                .maxSendLatencyMs(maxSendLatencyNanos.get() / 1_000_000.0)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        sendExecutor.shutdownNow();
+        topics.values().forEach(connections -> connections.forEach(connection -> connection.emitter.complete()));
+    }
+
+    /**
+     * Evict connections whose current write has been blocked longer than the send timeout,
+     * interrupting the write so its send thread returns to the pool
+     */
+    private void evictStalled() {
+        long now = System.nanoTime();
+        topics.values().forEach(connections -> connections.forEach(connection -> {
+            long startedAt = connection.sendStartedAt;
+            if (startedAt != 0 && now - startedAt > sendTimeoutNanos) {
+                log.warn("SSE write on {} blocked for over {} ms", connection.topic,
+                        TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+                evict(connection);
+                synchronized (connection.senderLock) {
+                    if (connection.sender != null) {
+                        connection.sender.interrupt();
+                    }
+                }
+            }
+        }));
+    }
+
+    private void heartbeat() {
+        topics.values().forEach(connections -> connections.forEach(connection -> send(connection, HEARTBEAT)));
+    }
+
+    private void scheduleDrain(SseConnection connection) {
+        if (!connection.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sendExecutor.execute(() -> drain(connection));
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            connection.draining.set(false);
+        }
+    }
+
+    private void drain(SseConnection connection) {
+        synchronized (connection.senderLock) {
+            connection.sender = Thread.currentThread();
+        }
+        try {
+            Pending pending;
+            while (!connection.closed && (pending = connection.queue.poll()) != null) {
+                connection.sendStartedAt = System.nanoTime();
+                connection.emitter.send(toEvent(pending.message()));
+                connection.sendStartedAt = 0;
+
+                long latency = System.nanoTime() - pending.enqueuedAt();
+                eventsSent.increment();
+                sendLatencyNanos.add(latency);
+                maxSendLatencyNanos.accumulateAndGet(latency, Math::max);
+            }
+        } catch (Exception e) {
+            // Client disconnected - this is normal, just drop the connection
+            log.debug("SSE send failed on {}, closing connection", connection.topic);
+            remove(connection);
+            connection.emitter.completeWithError(e);
+        } finally {
+            // cleared under the lock so a late stall check cannot interrupt this thread's next task
+            synchronized (connection.senderLock) {
+                connection.sender = null;
+            }
+            connection.sendStartedAt = 0;
+            connection.draining.set(false);
+        }
+
+        if (!connection.closed && !connection.queue.isEmpty()) {
+            scheduleDrain(connection);
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toEvent(SseMessage message) {
+        if (message == HEARTBEAT) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+        SseEmitter.SseEventBuilder event = SseEmitter.event();
+        if (message.name() != null) {
+            event.name(message.name());
+        }
+        if (message.id() != null) {
+            event.id(message.id());
+        }
+        return event.data(message.data(), MediaType.APPLICATION_JSON);
+    }
+
+    private void evict(SseConnection connection) {
+        if (remove(connection)) {
+            evictedConnections.increment();
+            log.warn("Evicted slow SSE consumer on {}", connection.topic);
+            connection.emitter.complete();
+        }
+    }
+
+    private boolean remove(SseConnection connection) {
+        connection.closed = true;
+        connection.queue.clear();
+        Set<SseConnection> connections = topics.get(connection.topic);
+        boolean removed = connections != null && connections.remove(connection);
+        // per-equipment topics come and go; drop a topic with its last viewer
+        topics.computeIfPresent(connection.topic, (topic, remaining) -> remaining.isEmpty() ? null : remaining);
+        if (removed) {
+            log.info("SSE connection closed on {}. Remaining connections: {}", connection.topic, connectionCount());
+        }
+        return removed;
+    }
+
+    /**
+     * Pre-serialized SSE event
+     */
+    public record SseMessage(String name, String id, String data) {}
+
+    private record Pending(SseMessage message, long enqueuedAt) {}
+
+    /**
+     * One client connection with its own bounded send queue
+     */
+    public static final class SseConnection {
+        @Getter
+        private final String topic;
+        private final SseEmitter emitter;
+        private final Queue<Pending> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        // System.nanoTime() when the in-flight write started, 0 when idle
+        private volatile long sendStartedAt;
+        // send thread currently draining this connection; guarded by senderLock
+        private final Object senderLock = new Object();
+        private Thread sender;
+
+        // last sequence number sent, for sequenced topics
+        @Getter
+        private final AtomicLong sequence = new AtomicLong(-1);
+
+        private SseConnection(String topic, SseEmitter emitter, int queueCapacity) {
+            this.topic = topic;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+}
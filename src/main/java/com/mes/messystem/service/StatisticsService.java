@@ -1,6 +1,7 @@
 package com.mes.messystem.service;
 
 import com.mes.messystem.domain.*;
+import com.mes.messystem.dto.OeeSummary;
 import com.mes.messystem.dto.ProductionStatistics;
 import com.mes.messystem.repository.*;
 import lombok.RequiredArgsConstructor;
@@ -8,8 +9,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -19,68 +18,38 @@ public class StatisticsService {
     private final LotRepository lotRepository;
     private final LotHistoryRepository lotHistoryRepository;
     private final QualityInspectionRepository qualityInspectionRepository;
+    private final OeeService oeeService;
 
     /**
      * 전체 생산 통계 계산
+     * Counts come from aggregate queries; OEE is the current shift's running total.
      */
     public ProductionStatistics getProductionStatistics() {
-        List<Lot> allLots = lotRepository.findAll();
-        List<LotHistory> allHistories = lotHistoryRepository.findAll();
-        List<QualityInspection> allInspections = qualityInspectionRepository.findAll();
-
         // LOT 통계
-        int totalLots = allLots.size();
-        int completedLots = (int) allLots.stream()
-                .filter(lot -> lot.getStatus() == LotStatus.COMPLETED)
-                .count();
-        int inProgressLots = (int) allLots.stream()
-                .filter(lot -> lot.getStatus() == LotStatus.IN_PROGRESS)
-                .count();
+        int totalLots = (int) lotRepository.count();
+        int completedLots = (int) lotRepository.countByStatus(LotStatus.COMPLETED);
+        int inProgressLots = (int) lotRepository.countByStatus(LotStatus.IN_PROGRESS);
 
         // 생산량 통계
-        int totalProduced = allHistories.stream()
-                .mapToInt(h -> h.getOutputQuantity() != null ? h.getOutputQuantity() : 0)
-                .sum();
-        
-        int totalDefects = allHistories.stream()
-                .mapToInt(h -> h.getDefectQuantity() != null ? h.getDefectQuantity() : 0)
-                .sum();
+        LotHistoryRepository.QuantityTotals quantities = lotHistoryRepository.sumQuantities();
+        int totalProduced = quantities.getOutputQuantity() != null ? quantities.getOutputQuantity().intValue() : 0;
+        int totalDefects = quantities.getDefectQuantity() != null ? quantities.getDefectQuantity().intValue() : 0;
 
         double overallDefectRate = (totalProduced + totalDefects) > 0
                 ? (double) totalDefects / (totalProduced + totalDefects) * 100
                 : 0.0;
 
         // 품질 검사 통계
-        int totalInspections = allInspections.size();
-        int passedInspections = (int) allInspections.stream()
-                .filter(i -> i.getResult() == InspectionResult.PASS)
-                .count();
-        int failedInspections = (int) allInspections.stream()
-                .filter(i -> i.getResult() == InspectionResult.FAIL)
-                .count();
+        int totalInspections = (int) qualityInspectionRepository.count();
+        int passedInspections = (int) qualityInspectionRepository.countByResult(InspectionResult.PASS);
+        int failedInspections = (int) qualityInspectionRepository.countByResult(InspectionResult.FAIL);
 
         double inspectionPassRate = totalInspections > 0
                 ? (double) passedInspections / totalInspections * 100
                 : 0.0;
 
-        // OEE 계산 (간소화 버전)
-        // Availability: 가동률 (실제로는 계획 시간 대비 가동 시간)
-        double availability = completedLots > 0 
-                ? Math.min(95.0 + (Math.random() * 5), 100.0)  // 시뮬레이션: 95-100%
-                : 0.0;
-
-        // Performance: 성능률 (실제로는 표준 사이클 타임 대비 실제 사이클 타임)
-        double performance = totalProduced > 0
-                ? Math.min(85.0 + (Math.random() * 10), 100.0)  // 시뮬레이션: 85-95%
-                : 0.0;
-
-        // Quality: 품질률 (양품률)
-        double quality = (totalProduced + totalDefects) > 0
-                ? ((double) totalProduced / (totalProduced + totalDefects)) * 100
-                : 0.0;
-
-        // OEE = Availability × Performance × Quality
-        double oee = (availability / 100) * (performance / 100) * (quality / 100) * 100;
+        // OEE = Availability × Performance × Quality (현재 교대)
+        OeeSummary oee = oeeService.getPlant();
 
         return ProductionStatistics.builder()
                 .totalLots(totalLots)
@@ -89,10 +58,12 @@ public class StatisticsService {
                 .totalProduced(totalProduced)
                 .totalDefects(totalDefects)
                 .overallDefectRate(Math.round(overallDefectRate * 100.0) / 100.0)
-                .availability(Math.round(availability * 100.0) / 100.0)
-                .performance(Math.round(performance * 100.0) / 100.0)
-                .quality(Math.round(quality * 100.0) / 100.0)
-                .oee(Math.round(oee * 100.0) / 100.0)
+                .availability(oee.getAvailability())
+                .performance(oee.getPerformance())
+                .quality(oee.getQuality())
+                .oee(oee.getOee())
+                .oeeShiftNumber(oee.getShiftNumber())
+                .oeeShiftStart(oee.getShiftStart())
                 .totalInspections(totalInspections)
                 .passedInspections(passedInspections)
                 .failedInspections(failedInspections)
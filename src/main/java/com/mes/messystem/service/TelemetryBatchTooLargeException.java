@@ -0,0 +1,15 @@
+package com.mes.messystem.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Batch is larger than the whole write-behind queue; retrying cannot succeed, so split it
+ */
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class TelemetryBatchTooLargeException extends RuntimeException {
+
+    public TelemetryBatchTooLargeException(int rows, int capacity) {
+        super("Telemetry batch of " + rows + " rows exceeds queue capacity " + capacity);
+    }
+}
@@ -0,0 +1,304 @@
+package com.mes.messystem.service;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Gorilla-style compressed telemetry block (one equipment, one hour).
+ * Timestamps are delta-of-delta encoded, temperatures XOR encoded against the
+ * previous value, speeds delta encoded and statuses stored only on change.
+ * A regular 1 Hz series costs a few bytes per sample instead of a ~100 byte row.
+ *
+ * Layout: version (1 byte), sample count (4 bytes), then the bit stream.
+ */
+public final class TelemetryBlockCodec {
+
+    public static final int NO_SPEED = TelemetryRing.NO_SPEED;
+    public static final int NO_STATUS = -1;
+
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 5;
+
+    private TelemetryBlockCodec() {
+    }
+
+    /**
+     * Builds one block; samples should be added in time order (others still round-trip, less compactly)
+     */
+    public static final class Encoder {
+        private final BitWriter out = new BitWriter();
+        private int count;
+        private long previousTimestamp;
+        private long previousDelta;
+        private long previousTemperature;
+        private int previousLeading = -1;
+        private int previousTrailing;
+        private int previousSpeed;
+        private int previousStatus;
+
+        /**
+         * @param temperature NaN when absent
+         * @param speed       NO_SPEED when absent
+         * @param status      status ordinal 0..2, or NO_STATUS
+         */
+        public void add(long timestampMillis, double temperature, int speed, int status) {
+            long temperatureBits = Double.doubleToRawLongBits(temperature);
+            if (count == 0) {
+                out.write(timestampMillis, 64);
+                out.write(temperatureBits, 64);
+                out.write(speed, 32);
+                out.write(status + 1, 2);
+                previousDelta = 0;
+            } else {
+                long delta = timestampMillis - previousTimestamp;
+                writeSigned(out, delta - previousDelta);
+                previousDelta = delta;
+                writeXor(temperatureBits ^ previousTemperature);
+                writeSigned(out, (long) speed - previousSpeed);
+                if (status == previousStatus) {
+                    out.write(0, 1);
+                } else {
+                    out.write(1, 1);
+                    out.write(status + 1, 2);
+                }
+            }
+            previousTimestamp = timestampMillis;
+            previousTemperature = temperatureBits;
+            previousSpeed = speed;
+            previousStatus = status;
+            count++;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        public byte[] finish() {
+            byte[] bits = out.toByteArray();
+            return ByteBuffer.allocate(HEADER_BYTES + bits.length)
+                    .put(VERSION)
+                    .putInt(count)
+                    .put(bits)
+                    .array();
+        }
+
+        private void writeXor(long xor) {
+            if (xor == 0) {
+                out.write(0, 1);
+                return;
+            }
+            out.write(1, 1);
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                // fits inside the previous meaningful window
+                out.write(0, 1);
+                out.write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            } else {
+                int length = 64 - leading - trailing;
+                out.write(1, 1);
+                out.write(leading, 5);
+                out.write(length - 1, 6);
+                out.write(xor >>> trailing, length);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+    }
+
+    /**
+     * Sequential decoder over one block; call next() before reading each sample
+     */
+    public static final class Decoder {
+        private final BitReader in;
+        private final int count;
+        private int index;
+        private long timestamp;
+        private long delta;
+        private long temperatureBits;
+        private int leading;
+        private int trailing;
+        private int speed;
+        private int status;
+
+        public Decoder(byte[] block) {
+            if (block.length < HEADER_BYTES || block[0] != VERSION) {
+                throw new IllegalArgumentException("Unsupported telemetry block");
+            }
+            this.count = ByteBuffer.wrap(block, 1, 4).getInt();
+            this.in = new BitReader(block, HEADER_BYTES);
+        }
+
+        public int count() {
+            return count;
+        }
+
+        public boolean next() {
+            if (index >= count) {
+                return false;
+            }
+            if (index == 0) {
+                timestamp = in.read(64);
+                temperatureBits = in.read(64);
+                speed = (int) in.read(32);
+                status = (int) in.read(2) - 1;
+            } else {
+                delta += readSigned(in);
+                timestamp += delta;
+                readXor();
+                speed = (int) (speed + readSigned(in));
+                if (in.read(1) == 1) {
+                    status = (int) in.read(2) - 1;
+                }
+            }
+            index++;
+            return true;
+        }
+
+        public long timestampMillis() {
+            return timestamp;
+        }
+
+        public double temperature() {
+            return Double.longBitsToDouble(temperatureBits);
+        }
+
+        public int speed() {
+            return speed;
+        }
+
+        public int status() {
+            return status;
+        }
+
+        private void readXor() {
+            if (in.read(1) == 0) {
+                return;
+            }
+            if (in.read(1) == 1) {
+                leading = (int) in.read(5);
+                int length = (int) in.read(6) + 1;
+                trailing = 64 - leading - length;
+            }
+            temperatureBits ^= in.read(64 - leading - trailing) << trailing;
+        }
+    }
+
+    /**
+     * Signed value in the smallest of 0 / 7 / 9 / 12 / 64 bit buckets, prefixed 0 / 10 / 110 / 1110 / 1111
+     */
+    private static void writeSigned(BitWriter out, long value) {
+        if (value == 0) {
+            out.write(0, 1);
+        } else if (fits(value, 7)) {
+            out.write(0b10, 2);
+            out.write(value, 7);
+        } else if (fits(value, 9)) {
+            out.write(0b110, 3);
+            out.write(value, 9);
+        } else if (fits(value, 12)) {
+            out.write(0b1110, 4);
+            out.write(value, 12);
+        } else {
+            out.write(0b1111, 4);
+            out.write(value, 64);
+        }
+    }
+
+    private static long readSigned(BitReader in) {
+        if (in.read(1) == 0) {
+            return 0;
+        }
+        int bits;
+        if (in.read(1) == 0) {
+            bits = 7;
+        } else if (in.read(1) == 0) {
+            bits = 9;
+        } else if (in.read(1) == 0) {
+            bits = 12;
+        } else {
+            return in.read(64);
+        }
+        long value = in.read(bits);
+        return (value << (64 - bits)) >> (64 - bits);
+    }
+
+    private static boolean fits(long value, int bits) {
+        long limit = 1L << (bits - 1);
+        return value >= -limit && value < limit;
+    }
+
+    private static final class BitWriter {
+        private byte[] bytes = new byte[256];
+        private int size;
+        private long buffer;
+        private int buffered;
+
+        void write(long value, int bits) {
+            while (bits > 0) {
+                int take = Math.min(bits, 64 - buffered);
+                long chunk = (value >>> (bits - take)) & mask(take);
+                buffer = take == 64 ? chunk : (buffer << take) | chunk;
+                buffered += take;
+                bits -= take;
+                if (buffered == 64) {
+                    flush(8);
+                }
+            }
+        }
+
+        byte[] toByteArray() {
+            int tail = (buffered + 7) / 8;
+            if (tail > 0) {
+                buffer <<= tail * 8 - buffered;
+                flush(tail);
+            }
+            return Arrays.copyOf(bytes, size);
+        }
+
+        private void flush(int byteCount) {
+            if (size + byteCount > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            for (int i = byteCount - 1; i >= 0; i--) {
+                bytes[size++] = (byte) (buffer >>> (i * 8));
+            }
+            buffer = 0;
+            buffered = 0;
+        }
+
+        private static long mask(int bits) {
+            return bits == 64 ? -1L : (1L << bits) - 1;
+        }
+    }
+
+    private static final class BitReader {
+        private final byte[] bytes;
+        private int position;
+        private int current;
+        private int available;
+
+        BitReader(byte[] bytes, int offset) {
+            this.bytes = bytes;
+            this.position = offset;
+        }
+
+        long read(int bits) {
+            long value = 0;
+            while (bits > 0) {
+                if (available == 0) {
+                    if (position >= bytes.length) {
+                        throw new IllegalArgumentException("Truncated telemetry block");
+                    }
+                    current = bytes[position++] & 0xFF;
+                    available = 8;
+                }
+                int take = Math.min(bits, available);
+                available -= take;
+                value = (value << take) | ((current >>> available) & ((1 << take) - 1));
+                bits -= take;
+            }
+            return value;
+        }
+    }
+}
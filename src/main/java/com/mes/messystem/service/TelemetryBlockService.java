@@ -0,0 +1,144 @@
+package com.mes.messystem.service;
+
+import com.mes.messystem.domain.EquipmentStatus;
+import com.mes.messystem.domain.RollupResolution;
+import com.mes.messystem.domain.TelemetryBlock;
+import com.mes.messystem.repository.EquipmentDataPurgeRepository.RawRow;
+import com.mes.messystem.repository.TelemetryBlockRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * 압축 텔레메트리 블록 저장/조회.
+ * Archived rows are packed per equipment per hour into telemetry_block; range reads
+ * stream blocks from the database one at a time and decode them sample by sample,
+ * so memory use does not grow with the range.
+ */
+@Slf4j
+@Service
+public class TelemetryBlockService {
+
+    private static final EquipmentStatus[] STATUSES = EquipmentStatus.values();
+
+    private final TelemetryBlockRepository telemetryBlockRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnly;
+
+    public TelemetryBlockService(TelemetryBlockRepository telemetryBlockRepository,
+                                 EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager) {
+        this.telemetryBlockRepository = telemetryBlockRepository;
+        this.entityManager = entityManager;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    /**
+     * Receives decoded samples; temperature is null-free (NaN when absent)
+     */
+    @FunctionalInterface
+    public interface SampleVisitor {
+        void accept(LocalDateTime timestamp, EquipmentStatus status, double temperature, Integer productionSpeed)
+                throws Exception;
+    }
+
+    /**
+     * Encode rows into per equipment, per hour blocks and store them.
+     * Blocks are committed when this returns, so the rows can be deleted afterwards.
+     * @return number of blocks written
+     */
+    public int archive(List<RawRow> rows) {
+        Map<Long, Map<LocalDateTime, List<RawRow>>> grouped = new HashMap<>();
+        for (RawRow row : rows) {
+            if (row.timestamp() == null) {
+                continue;
+            }
+            grouped.computeIfAbsent(row.equipmentId(), id -> new TreeMap<>())
+                    .computeIfAbsent(RollupResolution.HOUR.bucketStart(row.timestamp()), hour -> new ArrayList<>())
+                    .add(row);
+        }
+
+        List<TelemetryBlock> blocks = new ArrayList<>();
+        grouped.forEach((equipmentId, hours) -> hours.forEach((hour, hourRows) -> {
+            hourRows.sort(Comparator.comparing(RawRow::timestamp));
+            TelemetryBlockCodec.Encoder encoder = new TelemetryBlockCodec.Encoder();
+            for (RawRow row : hourRows) {
+                encoder.add(toMillis(row.timestamp()),
+                        row.temperature() != null ? row.temperature() : Double.NaN,
+                        row.productionSpeed() != null ? row.productionSpeed() : TelemetryBlockCodec.NO_SPEED,
+                        row.status() != null ? EquipmentStatus.valueOf(row.status()).ordinal() : TelemetryBlockCodec.NO_STATUS);
+            }
+            blocks.add(TelemetryBlock.builder()
+                    .equipmentId(equipmentId)
+                    .blockStart(hour)
+                    .firstTimestamp(hourRows.get(0).timestamp())
+                    .lastTimestamp(hourRows.get(hourRows.size() - 1).timestamp())
+                    .sampleCount(encoder.count())
+                    .payload(encoder.finish())
+                    .build());
+        }));
+
+        telemetryBlockRepository.saveAll(blocks);
+        return blocks.size();
+    }
+
+    /**
+     * Decode archived samples of one equipment in [from, to), oldest block first
+     * @return number of samples visited
+     */
+    public long stream(Long equipmentId, LocalDateTime from, LocalDateTime to, SampleVisitor visitor) {
+        long fromMillis = toMillis(from);
+        long toMillis = toMillis(to);
+
+        Long visited = readOnly.execute(tx -> {
+            long count = 0;
+            try (Stream<TelemetryBlock> blocks = telemetryBlockRepository.streamOverlapping(equipmentId, from, to)) {
+                Iterator<TelemetryBlock> iterator = blocks.iterator();
+                while (iterator.hasNext()) {
+                    TelemetryBlock block = iterator.next();
+                    TelemetryBlockCodec.Decoder decoder = new TelemetryBlockCodec.Decoder(block.getPayload());
+                    // keep the persistence context from holding every payload
+                    entityManager.detach(block);
+
+                    while (decoder.next()) {
+                        long millis = decoder.timestampMillis();
+                        if (millis < fromMillis || millis >= toMillis) {
+                            continue;
+                        }
+                        int status = decoder.status();
+                        int speed = decoder.speed();
+                        visitor.accept(fromMillis(millis),
+                                status != TelemetryBlockCodec.NO_STATUS ? STATUSES[status] : null,
+                                decoder.temperature(),
+                                speed != TelemetryBlockCodec.NO_SPEED ? speed : null);
+                        count++;
+                    }
+                }
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Archived telemetry read failed", e);
+            }
+            return count;
+        });
+        return visited != null ? visited : 0;
+    }
+
+    // equipment timestamps are zone-less; UTC keeps the mapping one-to-one
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,15 @@
+package com.mes.messystem.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * DURABLE ack could not confirm the commit (failed or timed out); clients should retry
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class TelemetryCommitException extends RuntimeException {
+
+    public TelemetryCommitException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,15 @@
+package com.mes.messystem.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Write-behind queue is full; clients should back off and retry
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TelemetryQueueFullException extends RuntimeException {
+
+    public TelemetryQueueFullException(int capacity) {
+        super("Telemetry queue full (capacity " + capacity + ")");
+    }
+}
@@ -0,0 +1,64 @@
+package com.mes.messystem.service;
+
+/**
+ * Fixed-capacity ring of recent samples for one equipment, stored in primitive
+ * arrays. Missing values are NaN (temperature) and Integer.MIN_VALUE (speed).
+ */
+public class TelemetryRing {
+
+    public static final int BYTES_PER_SAMPLE = Long.BYTES + Double.BYTES + Integer.BYTES;
+    public static final int NO_SPEED = Integer.MIN_VALUE;
+
+    private final long[] timestamps;
+    private final double[] temperatures;
+    private final int[] speeds;
+    private long written;   // total samples ever written; next slot is written % capacity
+
+    public TelemetryRing(int capacity) {
+        this.timestamps = new long[capacity];
+        this.temperatures = new double[capacity];
+        this.speeds = new int[capacity];
+    }
+
+    public synchronized void add(long epochMillis, double temperature, int speed) {
+        int slot = (int) (written % timestamps.length);
+        timestamps[slot] = epochMillis;
+        temperatures[slot] = temperature;
+        speeds[slot] = speed;
+        written++;
+    }
+
+    /**
+     * Copy of the samples with timestamp >= sinceMillis, in insertion (oldest first) order
+     */
+    public synchronized Window since(long sinceMillis) {
+        int size = (int) Math.min(written, timestamps.length);
+        long first = written - size;
+
+        int count = 0;
+        for (long i = first; i < written; i++) {
+            if (timestamps[(int) (i % timestamps.length)] >= sinceMillis) {
+                count++;
+            }
+        }
+
+        Window window = new Window(new long[count], new double[count], new int[count]);
+        int out = 0;
+        for (long i = first; i < written; i++) {
+            int slot = (int) (i % timestamps.length);
+            if (timestamps[slot] >= sinceMillis) {
+                window.timestamps()[out] = timestamps[slot];
+                window.temperatures()[out] = temperatures[slot];
+                window.speeds()[out] = speeds[slot];
+                out++;
+            }
+        }
+        return window;
+    }
+
+    public int capacity() {
+        return timestamps.length;
+    }
+
+    public record Window(long[] timestamps, double[] temperatures, int[] speeds) {}
+}
@@ -0,0 +1,204 @@
+package com.mes.messystem.service;
+
+import com.mes.messystem.domain.EquipmentData;
+import com.mes.messystem.domain.EquipmentRollup;
+import com.mes.messystem.domain.RollupResolution;
+import com.mes.messystem.dto.TelemetryTrendPoint;
+import com.mes.messystem.dto.TelemetryTrendResponse;
+import com.mes.messystem.repository.EquipmentRollupBatchRepository;
+import com.mes.messystem.repository.EquipmentRollupRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 1분 / 1시간 단위 설비 텔레메트리 롤업.
+ * Committed samples are folded into in-memory bucket accumulators and flushed
+ * as additive upserts, so ingest never reads rollup rows back.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TelemetryRollupService {
+
+    private final EquipmentRollupRepository equipmentRollupRepository;
+    private final EquipmentRollupBatchRepository equipmentRollupBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<BucketKey, EquipmentRollup> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Fold samples into their buckets once the surrounding transaction commits
+     */
+    public void record(List<EquipmentData> samples) {
+        TransactionCallbacks.afterCommit(() -> samples.forEach(this::accumulate));
+    }
+
+    /**
+     * Flush pending buckets as additive upserts.
+     * All JDBC batches commit together, so a failed flush can re-queue every bucket
+     * without counting any of them twice.
+     */
+    @Scheduled(fixedDelayString = "${mes.equipment.rollup.flush-ms:10000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<EquipmentRollup> rows = new ArrayList<>();
+        for (BucketKey key : pending.keySet()) {
+            EquipmentRollup row = pending.remove(key);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(tx -> equipmentRollupBatchRepository.upsertAll(rows));
+            log.debug("Flushed {} telemetry rollup buckets", rows.size());
+        } catch (Exception e) {
+            // put the buckets back so the next flush retries them
+            rows.forEach(row -> pending.merge(keyOf(row), row, this::merge));
+            log.error("Telemetry rollup flush failed, {} buckets kept for retry", rows.size(), e);
+        }
+    }
+
+    /**
+     * Recompute [from, to) at every resolution from raw equipment_data.
+     * Pending buckets are flushed first; samples ingested while the rebuild runs
+     * may be counted twice, so run it while ingest is quiet.
+     */
+    @Transactional
+    public synchronized int rebuild(LocalDateTime from, LocalDateTime to) {
+        flush();
+
+        int buckets = 0;
+        for (RollupResolution resolution : RollupResolution.values()) {
+            LocalDateTime start = resolution.bucketStart(from);
+            LocalDateTime end = resolution.bucketStart(to).plus(resolution.getBucketSize());
+            buckets += equipmentRollupBatchRepository.rebuild(resolution, start, end);
+        }
+        log.info("Rebuilt telemetry rollups for {} ~ {}: {} buckets", from, to, buckets);
+        return buckets;
+    }
+
+    /**
+     * Trend over [from, to) at the finest resolution that stays within maxPoints
+     * buckets, or the coarsest one when none does
+     */
+    @Transactional(readOnly = true)
+    public TelemetryTrendResponse getTrend(Long equipmentId, LocalDateTime from, LocalDateTime to,
+                                           int maxPoints, RollupResolution resolution) {
+        RollupResolution selected = resolution != null ? resolution : selectResolution(from, to, maxPoints);
+
+        List<TelemetryTrendPoint> points = equipmentRollupRepository
+                .findByEquipmentIdAndResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+                        equipmentId, selected, selected.bucketStart(from), to)
+                .stream()
+                .map(this::toPoint)
+                .toList();
+
+        return TelemetryTrendResponse.builder()
+                .equipmentId(equipmentId)
+                .resolution(selected)
+                .from(from)
+                .to(to)
+                .points(points)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private RollupResolution selectResolution(LocalDateTime from, LocalDateTime to, int maxPoints) {
+        RollupResolution[] resolutions = RollupResolution.values();
+        for (RollupResolution resolution : resolutions) {
+            if (resolution.bucketCount(from, to) <= maxPoints) {
+                return resolution;
+            }
+        }
+        return resolutions[resolutions.length - 1];
+    }
+
+    private void accumulate(EquipmentData data) {
+        if (data.getEquipment() == null || data.getTimestamp() == null) {
+            return;
+        }
+        for (RollupResolution resolution : RollupResolution.values()) {
+            EquipmentRollup sample = EquipmentRollup.builder()
+                    .equipmentId(data.getEquipment().getId())
+                    .resolution(resolution)
+                    .bucketStart(resolution.bucketStart(data.getTimestamp()))
+                    .sampleCount(1)
+                    .temperatureCount(data.getTemperature() != null ? 1 : 0)
+                    .temperatureMin(data.getTemperature())
+                    .temperatureMax(data.getTemperature())
+                    .temperatureSum(data.getTemperature() != null ? data.getTemperature() : 0)
+                    .speedCount(data.getProductionSpeed() != null ? 1 : 0)
+                    .speedMin(data.getProductionSpeed())
+                    .speedMax(data.getProductionSpeed())
+                    .speedSum(data.getProductionSpeed() != null ? data.getProductionSpeed() : 0)
+                    .build();
+            // merge is atomic per key, so a concurrent flush either sees this sample or the next one does
+            pending.merge(keyOf(sample), sample, this::merge);
+        }
+    }
+
+    private EquipmentRollup merge(EquipmentRollup target, EquipmentRollup other) {
+        target.setSampleCount(target.getSampleCount() + other.getSampleCount());
+        target.setTemperatureCount(target.getTemperatureCount() + other.getTemperatureCount());
+        target.setTemperatureMin(min(target.getTemperatureMin(), other.getTemperatureMin()));
+        target.setTemperatureMax(max(target.getTemperatureMax(), other.getTemperatureMax()));
+        target.setTemperatureSum(target.getTemperatureSum() + other.getTemperatureSum());
+        target.setSpeedCount(target.getSpeedCount() + other.getSpeedCount());
+        target.setSpeedMin(min(target.getSpeedMin(), other.getSpeedMin()));
+        target.setSpeedMax(max(target.getSpeedMax(), other.getSpeedMax()));
+        target.setSpeedSum(target.getSpeedSum() + other.getSpeedSum());
+        return target;
+    }
+
+    private TelemetryTrendPoint toPoint(EquipmentRollup row) {
+        return TelemetryTrendPoint.builder()
+                .bucketStart(row.getBucketStart())
+                .sampleCount(row.getSampleCount())
+                .temperatureMin(row.getTemperatureMin())
+                .temperatureMax(row.getTemperatureMax())
+                .temperatureAvg(row.getTemperatureCount() > 0
+                        ? row.getTemperatureSum() / row.getTemperatureCount() : null)
+                .productionSpeedMin(row.getSpeedMin())
+                .productionSpeedMax(row.getSpeedMax())
+                .productionSpeedAvg(row.getSpeedCount() > 0
+                        ? (double) row.getSpeedSum() / row.getSpeedCount() : null)
+                .build();
+    }
+
+    private static <T extends Comparable<T>> T min(T a, T b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static <T extends Comparable<T>> T max(T a, T b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private BucketKey keyOf(EquipmentRollup row) {
+        return new BucketKey(row.getEquipmentId(), row.getResolution(), row.getBucketStart());
+    }
+
+    private record BucketKey(Long equipmentId, RollupResolution resolution, LocalDateTime bucketStart) {}
+}
@@ -0,0 +1,161 @@
+package com.mes.messystem.service;
+
+import com.mes.messystem.domain.EquipmentData;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded write-behind queue for telemetry rows.
+ * Producers append without locking; a single writer thread drains the queue
+ * every flush interval, or as soon as flushRows rows are waiting, and hands
+ * each group to the flusher as one transaction.
+ */
+@Slf4j
+class TelemetryWriteBehindQueue {
+
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();   // queued rows, not submissions
+    private final LongAdder committedRows = new LongAdder();
+    private final LongAdder droppedRows = new LongAdder();
+    private final LongAdder failedCommits = new LongAdder();
+
+    private final int capacity;
+    private final int flushRows;
+    private final long flushIntervalNanos;
+    private final Consumer<List<EquipmentData>> flusher;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    TelemetryWriteBehindQueue(int capacity, int flushRows, long flushIntervalMs,
+                              Consumer<List<EquipmentData>> flusher) {
+        this.capacity = capacity;
+        this.flushRows = flushRows;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.flusher = flusher;
+        this.writer = new Thread(this::run, "telemetry-writer");
+        this.writer.setDaemon(true);
+    }
+
+    void start() {
+        writer.start();
+    }
+
+    /**
+     * Queue rows as one unit; the future completes once they are committed.
+     * A submission is accepted whole or rejected whole.
+     */
+    CompletableFuture<Void> submit(List<EquipmentData> rows) {
+        if (!running) {
+            throw new IllegalStateException("Telemetry writer is stopped");
+        }
+        if (rows.size() > capacity) {
+            throw new TelemetryBatchTooLargeException(rows.size(), capacity);
+        }
+        if (size.addAndGet(rows.size()) > capacity) {
+            size.addAndGet(-rows.size());
+            throw new TelemetryQueueFullException(capacity);
+        }
+
+        Pending pending = new Pending(rows, new CompletableFuture<>());
+        queue.offer(pending);
+        if (size.get() >= flushRows) {
+            LockSupport.unpark(writer);
+        }
+        return pending.done();
+    }
+
+    int pendingRows() {
+        return size.get();
+    }
+
+    long committedRows() {
+        return committedRows.sum();
+    }
+
+    long droppedRows() {
+        return droppedRows.sum();
+    }
+
+    long failedCommits() {
+        return failedCommits.sum();
+    }
+
+    /**
+     * Stop accepting rows and flush what is left
+     */
+    void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            if (running && size.get() < flushRows) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            flushOnce();
+        }
+    }
+
+    private void flushOnce() {
+        List<EquipmentData> rows = new ArrayList<>();
+        List<Pending> group = new ArrayList<>();
+        Pending pending;
+        while (rows.size() < flushRows && (pending = queue.poll()) != null) {
+            rows.addAll(pending.rows());
+            group.add(pending);
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        size.addAndGet(-rows.size());
+
+        try {
+            flusher.accept(rows);
+            committedRows.add(rows.size());
+            group.forEach(submission -> submission.done().complete(null));
+        } catch (Exception e) {
+            if (group.size() == 1) {
+                fail(group.get(0), e);
+                return;
+            }
+            // one bad submission must not take the rest of the group down with it
+            log.warn("Telemetry group commit of {} rows failed, committing {} submissions one by one",
+                    rows.size(), group.size(), e);
+            group.forEach(this::flushAlone);
+        }
+    }
+
+    private void flushAlone(Pending submission) {
+        try {
+            flusher.accept(submission.rows());
+            committedRows.add(submission.rows().size());
+            submission.done().complete(null);
+        } catch (Exception e) {
+            fail(submission, e);
+        }
+    }
+
+    private void fail(Pending submission, Exception e) {
+        droppedRows.add(submission.rows().size());
+        failedCommits.increment();
+        log.error("Telemetry commit failed, {} rows dropped", submission.rows().size(), e);
+        submission.done().completeExceptionally(e);
+    }
+
+    private record Pending(List<EquipmentData> rows, CompletableFuture<Void> done) {}
+}
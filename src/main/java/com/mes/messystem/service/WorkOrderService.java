@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class WorkOrderService {
     private final WorkOrderRepository workOrderRepository;
+    private final DataVersionService dataVersionService;
 
     public WorkOrder createWorkOrder(Product product, int quantity) {
         WorkOrder wo = WorkOrder.builder()
@@ -17,7 +18,9 @@ public class WorkOrderService {
                 .status(WorkOrderStatus.PLANNED)
                 .build();
 
-        return workOrderRepository.save(wo);
+        WorkOrder saved = workOrderRepository.save(wo);
+        dataVersionService.bump(DataVersionService.Domain.WORK_ORDER);
+        return saved;
     }
 
     public WorkOrder start(Long id) {
@@ -25,7 +28,9 @@ public class WorkOrderService {
                 .orElseThrow();
 
         wo.setStatus(WorkOrderStatus.IN_PROGRESS);
-        return workOrderRepository.save(wo);
+        WorkOrder saved = workOrderRepository.save(wo);
+        dataVersionService.bump(DataVersionService.Domain.WORK_ORDER);
+        return saved;
     }
 
     public WorkOrder finish(Long id) {
@@ -33,6 +38,8 @@ public class WorkOrderService {
                 .orElseThrow();
 
         wo.setStatus(WorkOrderStatus.COMPLETED);
-        return workOrderRepository.save(wo);
+        WorkOrder saved = workOrderRepository.save(wo);
+        dataVersionService.bump(DataVersionService.Domain.WORK_ORDER);
+        return saved;
     }
 }
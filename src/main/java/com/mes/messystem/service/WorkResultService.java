@@ -27,6 +27,7 @@ public class WorkResultService {
     private final ProcessRepository processRepository;
     private final WorkResultRepository workResultRepository;
     private final WebSocketNotificationController webSocketNotificationController;
+    private final DataVersionService dataVersionService;
 
     // Defect rate threshold (over than 30% REJECTED)
     private static final double DEFECT_RATE_THRESHOLD = 0.30;
@@ -39,6 +40,8 @@ public class WorkResultService {
         ProcessEntity process = processRepository.findById(processId)
                 .orElseThrow(() -> new RuntimeException("Process not found"));
 
+        dataVersionService.bump(DataVersionService.Domain.WORK_ORDER);
+
         // Get full process sequence for the product
         List<ProcessEntity> processList = workOrder.getProduct().getProcesses()
                 .stream()
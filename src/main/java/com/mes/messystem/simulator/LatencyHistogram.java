@@ -0,0 +1,75 @@
+package com.mes.messystem.simulator;
+
+/**
+ * Log-linear latency histogram in microseconds, about 3% relative precision.
+ * Not thread-safe: each producer records into its own instance and they are merged at the end.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;   // 32 per power of two
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;        // values below are exact
+
+    private final long[] counts = new long[index(Long.MAX_VALUE) + 1];
+    private long total;
+    private long max;
+
+    public void recordMicros(long micros) {
+        long value = Math.max(micros, 0);
+        counts[index(value)]++;
+        total++;
+        max = Math.max(max, value);
+    }
+
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    public long count() {
+        return total;
+    }
+
+    public long maxMicros() {
+        return max;
+    }
+
+    /**
+     * Value at the given percentile (0-100); the upper bound of its bucket, never above max
+     */
+    public long percentileMicros(double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    static int index(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long upperBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long sub = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,339 @@
+package com.mes.messystem.simulator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mes.messystem.config.LoadGenProperties;
+import com.mes.messystem.domain.Equipment;
+import com.mes.messystem.domain.EquipmentStatus;
+import com.mes.messystem.domain.EquipmentType;
+import com.mes.messystem.dto.EquipmentDataBatchResponse;
+import com.mes.messystem.dto.EquipmentDataRequest;
+import com.mes.messystem.repository.EquipmentRepository;
+import com.mes.messystem.service.EquipmentDataService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 부하 생성기 (loadgen profile).
+ * Thousands of virtual machines are split across producers running on virtual threads.
+ * Each sample has an intended send time from the configured rate, and latency is measured
+ * from that time until the ingest call returns, so a stalled server shows up as latency
+ * instead of silently lowering the offered load. A throughput and latency report is
+ * logged when the run ends.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Profile("loadgen")
+public class LoadGenerator {
+
+    private final LoadGenProperties properties;
+    private final EquipmentDataService equipmentDataService;
+    private final EquipmentRepository equipmentRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile boolean stopped;
+    private Thread coordinator;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        coordinator = Thread.ofPlatform().name("loadgen").start(() -> {
+            try {
+                run();
+            } catch (Exception e) {
+                log.error("Load generation failed", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        if (coordinator != null) {
+            coordinator.interrupt();
+        }
+    }
+
+    private void run() throws InterruptedException {
+        List<Long> equipmentIds = ensureEquipment();
+        int producerCount = Math.max(1, Math.min(properties.getProducers(), equipmentIds.size()));
+        long intervalNanos = (long) (1_000_000_000L / properties.getSampleRate());
+
+        HttpClient httpClient = isHttp()
+                ? HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofMillis(properties.getRequestTimeoutMs()))
+                    .build()
+                : null;
+
+        List<Producer> producers = new ArrayList<>();
+        for (int p = 0; p < producerCount; p++) {
+            List<Long> slice = new ArrayList<>();
+            for (int i = p; i < equipmentIds.size(); i += producerCount) {
+                slice.add(equipmentIds.get(i));
+            }
+            // stagger producers across the interval so they do not all fire together
+            producers.add(new Producer(slice, intervalNanos * p / producerCount, httpClient));
+        }
+
+        log.info("Load generation started: mode={}, machines={}, producers={}, rate={}/s per machine, duration={}s",
+                properties.getMode(), equipmentIds.size(), producerCount,
+                properties.getSampleRate(), properties.getDurationSeconds());
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(properties.getWarmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(properties.getDurationSeconds());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Producer producer : producers) {
+                executor.submit(() -> producer.run(start, intervalNanos, measureFrom, end));
+            }
+        }
+
+        report(producers, end - measureFrom);
+    }
+
+    /**
+     * Reuse or create the prefixed equipment rows, spread over lines of machinesPerLine
+     */
+    private List<Long> ensureEquipment() {
+        Map<String, Long> existing = new HashMap<>();
+        for (Equipment equipment : equipmentRepository.findByNameStartingWith(properties.getEquipmentPrefix())) {
+            existing.put(equipment.getName(), equipment.getId());
+        }
+
+        EquipmentType[] types = EquipmentType.values();
+        List<Long> ids = new ArrayList<>(properties.getMachines());
+        List<Equipment> missing = new ArrayList<>();
+        for (int i = 0; i < properties.getMachines(); i++) {
+            String name = properties.getEquipmentPrefix() + i;
+            Long id = existing.get(name);
+            if (id != null) {
+                ids.add(id);
+                continue;
+            }
+            missing.add(Equipment.builder()
+                    .name(name)
+                    .location("LOADGEN - Line " + (i / Math.max(1, properties.getMachinesPerLine()) + 1))
+                    .type(types[i % types.length])
+                    .sequence(i)
+                    .build());
+        }
+
+        for (int from = 0; from < missing.size(); from += 500) {
+            List<Equipment> chunk = missing.subList(from, Math.min(from + 500, missing.size()));
+            equipmentRepository.saveAll(chunk).forEach(saved -> ids.add(saved.getId()));
+        }
+        if (!missing.isEmpty()) {
+            log.info("Created {} load generation equipment", missing.size());
+        }
+        return ids;
+    }
+
+    private boolean isHttp() {
+        return properties.getMode() == LoadGenProperties.Mode.HTTP
+                || properties.getMode() == LoadGenProperties.Mode.HTTP_BATCH;
+    }
+
+    private boolean isBatch() {
+        return properties.getMode() == LoadGenProperties.Mode.IN_PROCESS_BATCH
+                || properties.getMode() == LoadGenProperties.Mode.HTTP_BATCH;
+    }
+
+    private void report(List<Producer> producers, long measuredNanos) {
+        LatencyHistogram latency = new LatencyHistogram();
+        long sent = 0;
+        long failed = 0;
+        long rejected = 0;
+        long late = 0;
+        for (Producer producer : producers) {
+            latency.merge(producer.latency);
+            sent += producer.sent;
+            failed += producer.failed;
+            rejected += producer.rejected;
+            late += producer.late;
+        }
+
+        double seconds = measuredNanos / 1_000_000_000.0;
+        double offered = properties.getMachines() * properties.getSampleRate();
+        log.info("""
+                        Load generation finished ({} mode, {}s measured)
+                          offered    : {} samples/s
+                          achieved   : {} samples/s ({} sent, {} failed, {} rejected)
+                          behind     : {} ticks started more than one interval late
+                          latency ms : p50={} p90={} p99={} p99.9={} max={} ({} calls)""",
+                properties.getMode(), properties.getDurationSeconds(),
+                Math.round(offered),
+                Math.round(sent / seconds), sent, failed, rejected,
+                late,
+                millis(latency.percentileMicros(50)), millis(latency.percentileMicros(90)),
+                millis(latency.percentileMicros(99)), millis(latency.percentileMicros(99.9)),
+                millis(latency.maxMicros()), latency.count());
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+
+    /**
+     * One producer: a slice of machines, their simulated state and its own counters
+     */
+    private final class Producer {
+        private final long[] equipmentIds;
+        private final EquipmentStatus[] statuses;
+        private final double[] temperatures;
+        private final long offsetNanos;
+        private final HttpClient httpClient;
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private long sent;
+        private long failed;
+        private long rejected;
+        private long late;
+
+        private Producer(List<Long> equipmentIds, long offsetNanos, HttpClient httpClient) {
+            this.equipmentIds = equipmentIds.stream().mapToLong(Long::longValue).toArray();
+            this.statuses = new EquipmentStatus[this.equipmentIds.length];
+            this.temperatures = new double[this.equipmentIds.length];
+            this.offsetNanos = offsetNanos;
+            this.httpClient = httpClient;
+            Arrays.fill(statuses, EquipmentStatus.RUN);
+            Arrays.fill(temperatures, 50.0);
+        }
+
+        private void run(long start, long intervalNanos, long measureFrom, long end) {
+            for (long tick = 0; !stopped; tick++) {
+                long intended = start + offsetNanos + tick * intervalNanos;
+                if (intended >= end) {
+                    return;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else if (-wait > intervalNanos) {
+                    late++;
+                }
+
+                List<EquipmentDataRequest> samples = new ArrayList<>(equipmentIds.length);
+                for (int i = 0; i < equipmentIds.length; i++) {
+                    samples.add(nextSample(i));
+                }
+                boolean measured = intended >= measureFrom;
+
+                if (isBatch()) {
+                    for (int from = 0; from < samples.size(); from += properties.getBatchSize()) {
+                        List<EquipmentDataRequest> batch =
+                                samples.subList(from, Math.min(from + properties.getBatchSize(), samples.size()));
+                        send(batch, intended, measured);
+                    }
+                } else {
+                    for (EquipmentDataRequest sample : samples) {
+                        send(List.of(sample), intended, measured);
+                    }
+                }
+            }
+        }
+
+        private EquipmentDataRequest nextSample(int machine) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < properties.getStatusChangeProbability()) {
+                statuses[machine] = pickStatus(random);
+            }
+            EquipmentStatus status = statuses[machine];
+
+            // temperature drifts toward a status dependent level
+            double target = switch (status) {
+                case RUN -> 52.0;
+                case IDLE -> 35.0;
+                case ALARM -> 62.0;
+            };
+            temperatures[machine] += (target - temperatures[machine]) * 0.05 + random.nextGaussian() * 0.3;
+
+            return EquipmentDataRequest.builder()
+                    .equipmentId(equipmentIds[machine])
+                    .status(status)
+                    .temperature(Math.round(temperatures[machine] * 10.0) / 10.0)
+                    .productionSpeed(status == EquipmentStatus.RUN ? 100 + random.nextInt(51) : 0)
+                    .timestamp(LocalDateTime.now())
+                    .build();
+        }
+
+        private EquipmentStatus pickStatus(ThreadLocalRandom random) {
+            int total = properties.getStatusWeights().values().stream().mapToInt(Integer::intValue).sum();
+            if (total <= 0) {
+                return EquipmentStatus.RUN;
+            }
+            int pick = random.nextInt(total);
+            for (Map.Entry<EquipmentStatus, Integer> weight : properties.getStatusWeights().entrySet()) {
+                pick -= weight.getValue();
+                if (pick < 0) {
+                    return weight.getKey();
+                }
+            }
+            return EquipmentStatus.RUN;
+        }
+
+        private void send(List<EquipmentDataRequest> samples, long intended, boolean measured) {
+            int accepted = samples.size();
+            boolean ok = true;
+            try {
+                switch (properties.getMode()) {
+                    case IN_PROCESS -> equipmentDataService.saveEquipmentData(samples.get(0));
+                    case IN_PROCESS_BATCH -> accepted = equipmentDataService.saveEquipmentDataBatch(samples).getAccepted();
+                    case HTTP -> ok = post("/api/equipment-data", samples.get(0)) != null;
+                    case HTTP_BATCH -> {
+                        String body = post("/api/equipment-data/batch", samples);
+                        ok = body != null;
+                        if (ok) {
+                            accepted = objectMapper.readValue(body, EquipmentDataBatchResponse.class).getAccepted();
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                ok = false;
+                log.debug("Load generation call failed: {}", e.getMessage());
+            }
+
+            if (!measured) {
+                return;
+            }
+            latency.recordMicros((System.nanoTime() - intended) / 1000);
+            if (ok) {
+                sent += accepted;
+                rejected += samples.size() - accepted;
+            } else {
+                failed += samples.size();
+            }
+        }
+
+        /**
+         * POST as JSON; the response body on 2xx, otherwise null
+         */
+        private String post(String path, Object payload) throws Exception {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(properties.getBaseUrl() + path))
+                    .timeout(Duration.ofMillis(properties.getRequestTimeoutMs()))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(payload)))
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            return response.statusCode() / 100 == 2 ? response.body() : null;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.mes.messystem.ingest;
+
+import com.mes.messystem.domain.EquipmentStatus;
+import com.mes.messystem.dto.EquipmentDataRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryTelemetryListenerTest {
+
+    private final LinkedBlockingQueue<EquipmentDataRequest> received = new LinkedBlockingQueue<>();
+    private BinaryTelemetryListener listener;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        listener = new BinaryTelemetryListener(0, 4096, received::addAll);
+        listener.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        listener.close();
+    }
+
+    @Test
+    void decodesFramesSentFromSocketClient() throws Exception {
+        LocalDateTime timestamp = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        List<EquipmentDataRequest> sent = List.of(
+                sample(1L, EquipmentStatus.RUN, 45.5, 120, timestamp),
+                sample(2L, EquipmentStatus.ALARM, 71.25, 0, timestamp.plusSeconds(1)),
+                sample(3L, EquipmentStatus.IDLE, null, null, null));
+
+        ByteBuffer frames = ByteBuffer.allocate(TelemetryFrame.SIZE * sent.size());
+        sent.forEach(request -> TelemetryFrame.encode(frames, request));
+        frames.flip();
+
+        try (SocketChannel client = SocketChannel.open(new InetSocketAddress("localhost", listener.getLocalPort()))) {
+            // first frame and a half, then the rest: the split frame must be reassembled
+            ByteBuffer head = frames.duplicate().limit(TelemetryFrame.SIZE + 10);
+            writeFully(client, head);
+            Thread.sleep(50);
+            writeFully(client, frames.position(TelemetryFrame.SIZE + 10));
+
+            List<EquipmentDataRequest> decoded = take(sent.size());
+
+            assertEquals(sent, decoded);
+        }
+    }
+
+    @Test
+    void unknownStatusOrdinalDecodesToNullStatus() throws Exception {
+        ByteBuffer frame = ByteBuffer.allocate(TelemetryFrame.SIZE);
+        TelemetryFrame.encode(frame, sample(7L, null, 50.0, 100, null));
+        frame.flip();
+
+        try (SocketChannel client = SocketChannel.open(new InetSocketAddress("localhost", listener.getLocalPort()))) {
+            writeFully(client, frame);
+
+            EquipmentDataRequest decoded = take(1).get(0);
+
+            assertEquals(7L, decoded.getEquipmentId());
+            assertNull(decoded.getStatus());
+            assertNull(decoded.getTimestamp());
+        }
+    }
+
+    private EquipmentDataRequest sample(Long equipmentId, EquipmentStatus status, Double temperature,
+                                        Integer speed, LocalDateTime timestamp) {
+        return EquipmentDataRequest.builder()
+                .equipmentId(equipmentId)
+                .status(status)
+                .temperature(temperature)
+                .productionSpeed(speed)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    private void writeFully(SocketChannel client, ByteBuffer buffer) throws Exception {
+        while (buffer.hasRemaining()) {
+            client.write(buffer);
+        }
+    }
+
+    private List<EquipmentDataRequest> take(int count) throws InterruptedException {
+        List<EquipmentDataRequest> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            EquipmentDataRequest request = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(request, "timed out waiting for frame " + i);
+            result.add(request);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,127 @@
+package com.mes.messystem.service;
+
+import com.mes.messystem.config.AlarmRuleProperties;
+import com.mes.messystem.config.AlarmRuleProperties.Rule;
+import com.mes.messystem.config.AlarmRuleProperties.RuleType;
+import com.mes.messystem.controller.WebSocketNotificationController;
+import com.mes.messystem.domain.Equipment;
+import com.mes.messystem.domain.EquipmentData;
+import com.mes.messystem.domain.EquipmentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class AlarmRuleEngineTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+    private final Equipment equipment = Equipment.builder()
+            .id(1L).name("Cutting Machine 1").type(EquipmentType.CUTTING_MACHINE).build();
+
+    private AlarmRuleProperties properties;
+    private WebSocketNotificationController notifications;
+    private AlarmRuleEngine engine;
+
+    @BeforeEach
+    void setup() {
+        properties = new AlarmRuleProperties();
+        notifications = mock(WebSocketNotificationController.class);
+        engine = new AlarmRuleEngine(properties, notifications);
+    }
+
+    @Test
+    void thresholdFiresOnceAndRearmsOnlyPastClearThreshold() {
+        properties.setDefaultRules(List.of(rule(RuleType.THRESHOLD, 80.0, 75.0, 0, 0)));
+
+        sample(0, 81.0);    // fires
+        sample(1, 85.0);    // still active
+        sample(2, 78.0);    // hysteresis band, stays active
+        sample(3, 82.0);    // no re-fire without clearing
+        assertAlerts(1);
+
+        sample(4, 74.0);    // cleared
+        sample(5, 81.0);    // fires again
+        assertAlerts(2);
+    }
+
+    @Test
+    void sustainedFiresOnlyAfterSustainWindow() {
+        properties.setDefaultRules(List.of(rule(RuleType.SUSTAINED, 80.0, 75.0, 10, 0)));
+
+        sample(0, 81.0);
+        sample(5, 82.0);
+        assertAlerts(0);
+
+        sample(11, 81.0);
+        assertAlerts(1);
+    }
+
+    @Test
+    void sustainWindowRestartsAfterHysteresisBand() {
+        properties.setDefaultRules(List.of(rule(RuleType.SUSTAINED, 80.0, 75.0, 10, 0)));
+
+        sample(0, 81.0);
+        sample(5, 78.0);    // not breached, not cleared
+        sample(11, 81.0);   // must not count the time since t=0
+        assertAlerts(0);
+
+        sample(22, 81.0);
+        assertAlerts(1);
+    }
+
+    @Test
+    void cooldownSuppressesRepeatedAlerts() {
+        properties.setDefaultRules(List.of(rule(RuleType.THRESHOLD, 80.0, null, 0, 60)));
+
+        sample(0, 81.0);
+        sample(1, 79.0);
+        sample(2, 81.0);    // re-armed but within cooldown
+        assertAlerts(1);
+
+        sample(3, 79.0);
+        sample(70, 81.0);
+        assertAlerts(2);
+    }
+
+    @Test
+    void rateOfChangeAlertReportsRate() {
+        properties.setDefaultRules(List.of(rule(RuleType.RATE_OF_CHANGE, 1.0, null, 0, 0)));
+
+        sample(0, 20.0);
+        sample(2, 30.0);    // 5 degrees per second
+
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(notifications).broadcastAlert(message.capture(), anyString());
+        assertTrue(message.getValue().endsWith("(temperature changing faster than 1.0/s 5.00)"), message.getValue());
+    }
+
+    private Rule rule(RuleType type, double threshold, Double clearThreshold, long sustainSeconds, long cooldownSeconds) {
+        Rule rule = new Rule();
+        rule.setName(type.name());
+        rule.setType(type);
+        rule.setThreshold(threshold);
+        rule.setClearThreshold(clearThreshold);
+        rule.setSustainSeconds(sustainSeconds);
+        rule.setCooldownSeconds(cooldownSeconds);
+        return rule;
+    }
+
+    private void sample(long seconds, double temperature) {
+        engine.process(List.of(EquipmentData.builder()
+                .equipment(equipment)
+                .temperature(temperature)
+                .timestamp(T0.plusSeconds(seconds))
+                .build()));
+    }
+
+    private void assertAlerts(int count) {
+        verify(notifications, times(count)).broadcastAlert(anyString(), anyString());
+    }
+}
@@ -0,0 +1,151 @@
+package com.mes.messystem.service;
+
+import com.mes.messystem.domain.Equipment;
+import com.mes.messystem.domain.EquipmentData;
+import com.mes.messystem.domain.EquipmentStateInterval;
+import com.mes.messystem.domain.EquipmentStatus;
+import com.mes.messystem.dto.EquipmentStateDurations;
+import com.mes.messystem.repository.EquipmentStateIntervalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class EquipmentStateTrackerTest {
+
+    // far enough ahead that "now" never advances the totals during a test
+    private static final LocalDateTime DAY = LocalDateTime.of(2099, 1, 1, 0, 0);
+
+    private final Equipment equipment = Equipment.builder().id(1L).name("Cutting Machine 1").build();
+    private final ShiftCalendar shiftCalendar = new ShiftCalendar(new String[]{"06:00", "14:00", "22:00"});
+
+    private EquipmentStateIntervalRepository intervalRepository;
+    private EquipmentStateTracker tracker;
+
+    @BeforeEach
+    void setup() {
+        intervalRepository = mock(EquipmentStateIntervalRepository.class);
+        tracker = new EquipmentStateTracker(intervalRepository, shiftCalendar, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void accumulatesTimePerStatusAndRollsOverAtShiftStart() {
+        tracker.load();
+
+        sample(DAY.withHour(13), EquipmentStatus.RUN);
+        sample(DAY.withHour(13).withMinute(30), EquipmentStatus.IDLE);
+        sample(DAY.withHour(14).withMinute(10), EquipmentStatus.ALARM);
+        sample(DAY.withHour(14).withMinute(20), EquipmentStatus.ALARM);
+
+        EquipmentStateDurations shift = tracker.getCurrent(1L, EquipmentStateTracker.Period.SHIFT);
+        assertEquals(2, shift.getShiftNumber());
+        assertEquals(DAY.withHour(14), shift.getFrom());
+        assertEquals(0L, shift.getSeconds().get(EquipmentStatus.RUN));
+        assertEquals(600L, shift.getSeconds().get(EquipmentStatus.IDLE));
+        assertEquals(600L, shift.getSeconds().get(EquipmentStatus.ALARM));
+
+        EquipmentStateDurations day = tracker.getCurrent(1L, EquipmentStateTracker.Period.DAY);
+        assertEquals(1800L, day.getSeconds().get(EquipmentStatus.RUN));
+        assertEquals(2400L, day.getSeconds().get(EquipmentStatus.IDLE));
+        assertEquals(600L, day.getSeconds().get(EquipmentStatus.ALARM));
+        assertEquals(EquipmentStatus.ALARM, day.getCurrentStatus());
+        assertEquals(DAY.withHour(14).withMinute(10), day.getCurrentSince());
+    }
+
+    @Test
+    void rollsOverDayAtMidnightInsideNightShift() {
+        tracker.load();
+
+        sample(DAY.withHour(23), EquipmentStatus.RUN);
+        sample(DAY.plusDays(1).withMinute(30), EquipmentStatus.IDLE);
+
+        EquipmentStateDurations day = tracker.getCurrent(1L, EquipmentStateTracker.Period.DAY);
+        assertEquals(DAY.plusDays(1), day.getFrom());
+        assertEquals(1800L, day.getSeconds().get(EquipmentStatus.RUN));
+
+        EquipmentStateDurations shift = tracker.getCurrent(1L, EquipmentStateTracker.Period.SHIFT);
+        assertEquals(3, shift.getShiftNumber());
+        assertEquals(5400L, shift.getSeconds().get(EquipmentStatus.RUN));
+    }
+
+    @Test
+    void ignoresLateSamplesAndRepeatedStatus() {
+        tracker.load();
+
+        sample(DAY.withHour(10), EquipmentStatus.RUN);
+        sample(DAY.withHour(11), EquipmentStatus.RUN);
+        sample(DAY.withHour(10).withMinute(30), EquipmentStatus.ALARM);
+
+        EquipmentStateDurations shift = tracker.getCurrent(1L, EquipmentStateTracker.Period.SHIFT);
+        assertEquals(3600L, shift.getSeconds().get(EquipmentStatus.RUN));
+        assertEquals(0L, shift.getSeconds().get(EquipmentStatus.ALARM));
+        assertEquals(EquipmentStatus.RUN, shift.getCurrentStatus());
+    }
+
+    @Test
+    void writesQueuedTransitionsOnFlush() {
+        tracker.load();
+
+        sample(DAY.withHour(10), EquipmentStatus.RUN);
+        sample(DAY.withHour(10).withMinute(5), EquipmentStatus.RUN);
+        sample(DAY.withHour(10).withMinute(10), EquipmentStatus.IDLE);
+        verify(intervalRepository, never()).save(any(EquipmentStateInterval.class));
+
+        tracker.flushTransitions();
+
+        verify(intervalRepository).closeOpen(1L, DAY.withHour(10));
+        verify(intervalRepository).closeOpen(1L, DAY.withHour(10).withMinute(10));
+        verify(intervalRepository, times(2)).save(any(EquipmentStateInterval.class));
+    }
+
+    @Test
+    void loadRestoresOpenIntervalIntoCurrentTotals() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime shiftStart = shiftCalendar.shiftAt(now).start();
+        EquipmentStateInterval open = EquipmentStateInterval.builder()
+                .id(7L).equipmentId(1L).status(EquipmentStatus.RUN).startedAt(shiftStart).build();
+        when(intervalRepository.findAllOverlapping(any(), any())).thenReturn(List.of(open));
+        when(intervalRepository.findByEndedAtIsNull()).thenReturn(List.of(open));
+
+        tracker.load();
+
+        EquipmentStateDurations shift = tracker.getCurrent(1L, EquipmentStateTracker.Period.SHIFT);
+        long elapsed = Duration.between(shiftStart, LocalDateTime.now()).getSeconds();
+        assertEquals(EquipmentStatus.RUN, shift.getCurrentStatus());
+        assertEquals(shiftStart, shift.getCurrentSince());
+        assertTrue(Math.abs(shift.getSeconds().get(EquipmentStatus.RUN) - elapsed) <= 1);
+    }
+
+    @Test
+    void samplesBeforeLoadDoNotDoubleCountStoredTime() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime shiftStart = shiftCalendar.shiftAt(now).start();
+        EquipmentStateInterval open = EquipmentStateInterval.builder()
+                .id(7L).equipmentId(1L).status(EquipmentStatus.RUN).startedAt(shiftStart).build();
+        when(intervalRepository.findAllOverlapping(any(), any())).thenReturn(List.of(open));
+        when(intervalRepository.findByEndedAtIsNull()).thenReturn(List.of(open));
+
+        // arrives before load(), e.g. from the simulator
+        sample(shiftStart, EquipmentStatus.RUN);
+        tracker.load();
+
+        EquipmentStateDurations shift = tracker.getCurrent(1L, EquipmentStateTracker.Period.SHIFT);
+        long elapsed = Duration.between(shiftStart, LocalDateTime.now()).getSeconds();
+        assertTrue(shift.getSeconds().get(EquipmentStatus.RUN) <= elapsed + 1);
+    }
+
+    private void sample(LocalDateTime timestamp, EquipmentStatus status) {
+        tracker.record(List.of(EquipmentData.builder()
+                .equipment(equipment)
+                .status(status)
+                .timestamp(timestamp)
+                .build()));
+    }
+}
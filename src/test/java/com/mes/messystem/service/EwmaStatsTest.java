@@ -0,0 +1,48 @@
+package com.mes.messystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EwmaStatsTest {
+
+    @Test
+    void convergesToMeanAndStddevOfStationarySignal() {
+        Random random = new Random(7);
+        EwmaStats stats = new EwmaStats(0.01, 0.001);
+        for (int i = 0; i < 5000; i++) {
+            stats.update(50 + random.nextGaussian() * 2, 0.1);
+        }
+
+        assertEquals(50, stats.mean(), 0.5);
+        assertEquals(2, stats.stddev(0.1), 0.4);
+        assertTrue(Math.abs(stats.drift(0.1)) < 1, "drift=" + stats.drift(0.1));
+    }
+
+    @Test
+    void scoresSpikeAndLevelShift() {
+        Random random = new Random(11);
+        EwmaStats stats = new EwmaStats(0.05, 0.002);
+        for (int i = 0; i < 2000; i++) {
+            stats.update(50 + random.nextGaussian() * 0.5, 0.1);
+        }
+
+        assertTrue(stats.update(55, 0.1) > 6, "spike should score far above the noise");
+
+        for (int i = 0; i < 100; i++) {
+            stats.update(52 + random.nextGaussian() * 0.5, 0.1);
+        }
+        assertTrue(stats.drift(0.1) > 2, "drift=" + stats.drift(0.1));
+    }
+
+    @Test
+    void firstSampleScoresZero() {
+        EwmaStats stats = new EwmaStats(0.05, 0.002);
+
+        assertEquals(0, stats.update(100, 1.0));
+        assertEquals(100, stats.mean());
+        assertEquals(1, stats.count());
+    }
+}
@@ -0,0 +1,166 @@
+package com.mes.messystem.service;
+
+import com.mes.messystem.domain.*;
+import com.mes.messystem.dto.EquipmentStateDurations;
+import com.mes.messystem.dto.OeeSummary;
+import com.mes.messystem.repository.EquipmentRepository;
+import com.mes.messystem.repository.LotHistoryRepository;
+import com.mes.messystem.repository.ProcessRoutingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class OeeServiceTest {
+
+    private final Product product = Product.builder().id(10L).name("Widget").build();
+    private final ProcessEntity process = ProcessEntity.builder().id(20L).name("Cutting").build();
+    private final Equipment equipment = Equipment.builder().id(1L).name("Cutting Machine 1").location("LINE-A").build();
+    private final Lot lot = Lot.builder().id(100L).lotNumber("LOT-1").product(product).build();
+
+    private LotHistoryRepository lotHistoryRepository;
+    private EquipmentStateTracker equipmentStateTracker;
+    private ShiftCalendar shiftCalendar;
+    private OeeService oeeService;
+
+    private LocalDateTime now;
+    private ShiftCalendar.Shift shift;
+
+    @BeforeEach
+    void setup() {
+        lotHistoryRepository = mock(LotHistoryRepository.class);
+        ProcessRoutingRepository processRoutingRepository = mock(ProcessRoutingRepository.class);
+        EquipmentRepository equipmentRepository = mock(EquipmentRepository.class);
+        equipmentStateTracker = mock(EquipmentStateTracker.class);
+        shiftCalendar = mock(ShiftCalendar.class);
+
+        // standard time 1 minute per piece
+        when(processRoutingRepository.findAll()).thenReturn(List.of(ProcessRouting.builder()
+                .product(product).process(process).equipment(equipment).standardTime(1).build()));
+        when(equipmentRepository.findAll()).thenReturn(List.of(equipment));
+
+        now = LocalDateTime.now();
+        shift = new ShiftCalendar.Shift(1, now.minusHours(1), now.plusHours(7));
+        when(shiftCalendar.shiftAt(any())).thenReturn(shift);
+
+        oeeService = new OeeService(lotHistoryRepository, processRoutingRepository, equipmentRepository,
+                equipmentStateTracker, shiftCalendar);
+    }
+
+    @Test
+    void combinesAvailabilityPerformanceAndQuality() {
+        oeeService.rebuild();
+        oeeService.record(history(1L, now.minusMinutes(5), 90, 10));
+        when(equipmentStateTracker.getCurrentAll(EquipmentStateTracker.Period.SHIFT))
+                .thenReturn(List.of(durations(12_000, 4_000)));
+
+        OeeSummary summary = oeeService.getByEquipment().get(0);
+
+        // 12000 s RUN of 16000 s tracked; 100 pieces x 60 s ideal = 6000 s of 12000 s RUN; 90 of 100 good
+        assertEquals("Cutting Machine 1", summary.getName());
+        assertEquals(75.0, summary.getAvailability());
+        assertEquals(50.0, summary.getPerformance());
+        assertEquals(90.0, summary.getQuality());
+        assertEquals(33.75, summary.getOee());
+
+        OeeSummary line = oeeService.getByLine().get(0);
+        assertEquals("LINE-A", line.getKey());
+        assertEquals(33.75, line.getOee());
+    }
+
+    @Test
+    void capsPerformanceAndHandlesNoRunTime() {
+        oeeService.rebuild();
+        oeeService.record(history(1L, now.minusMinutes(5), 100, 0));
+
+        when(equipmentStateTracker.getCurrentAll(EquipmentStateTracker.Period.SHIFT))
+                .thenReturn(List.of(durations(3_000, 0)));
+        assertEquals(100.0, oeeService.getPlant().getPerformance());
+
+        when(equipmentStateTracker.getCurrentAll(EquipmentStateTracker.Period.SHIFT))
+                .thenReturn(List.of(durations(0, 0)));
+        OeeSummary idle = oeeService.getPlant();
+        assertEquals(0.0, idle.getAvailability());
+        assertEquals(0.0, idle.getPerformance());
+        assertEquals(0.0, idle.getOee());
+    }
+
+    @Test
+    void ignoresHistoriesOutsideTheCurrentShift() {
+        oeeService.rebuild();
+        oeeService.record(history(1L, now.minusHours(2), 50, 0));
+
+        assertEquals(0, oeeService.getPlant().getGoodQty());
+    }
+
+    @Test
+    void replaysRecordsTheRebuildQueryDidNotSee() {
+        when(lotHistoryRepository.findRoutingQuantitiesBetween(shift.start(), shift.end())).thenAnswer(invocation -> {
+            // both commit while the query runs; only id 7 is in its result
+            oeeService.record(history(7L, now.minusMinutes(5), 50, 0));
+            oeeService.record(history(5L, now.minusMinutes(4), 30, 0));
+            return List.of(row(7L, 50, 0));
+        });
+
+        oeeService.rebuild();
+
+        assertEquals(80, oeeService.getPlant().getGoodQty());
+    }
+
+    @Test
+    void rollsOverWhenTheShiftEnds() throws InterruptedException {
+        ShiftCalendar.Shift ending = new ShiftCalendar.Shift(1, now.minusHours(8), LocalDateTime.now().plusSeconds(1));
+        ShiftCalendar.Shift next = new ShiftCalendar.Shift(2, ending.end(), ending.end().plusHours(8));
+        when(shiftCalendar.shiftAt(any())).thenReturn(ending);
+
+        oeeService.rebuild();
+        oeeService.record(history(1L, now.minusMinutes(5), 40, 0));
+        assertEquals(40, oeeService.getPlant().getGoodQty());
+
+        when(shiftCalendar.shiftAt(any())).thenReturn(next);
+        while (!LocalDateTime.now().isAfter(ending.end())) {
+            Thread.sleep(50);
+        }
+
+        OeeSummary summary = oeeService.getPlant();
+        assertEquals(0, summary.getGoodQty());
+        assertEquals(2, summary.getShiftNumber());
+        assertEquals(next.start(), summary.getShiftStart());
+    }
+
+    private LotHistory history(Long id, LocalDateTime processedAt, int output, int defect) {
+        return LotHistory.builder()
+                .id(id)
+                .lot(lot)
+                .process(process)
+                .equipment(equipment)
+                .processedAt(processedAt)
+                .outputQuantity(output)
+                .defectQuantity(defect)
+                .build();
+    }
+
+    private EquipmentStateDurations durations(long runSeconds, long idleSeconds) {
+        return EquipmentStateDurations.builder()
+                .equipmentId(1L)
+                .seconds(Map.of(EquipmentStatus.RUN, runSeconds, EquipmentStatus.IDLE, idleSeconds))
+                .build();
+    }
+
+    private LotHistoryRepository.RoutingHistoryQuantity row(Long id, int output, int defect) {
+        return new LotHistoryRepository.RoutingHistoryQuantity() {
+            public Long getId() { return id; }
+            public Long getEquipmentId() { return 1L; }
+            public Long getProductId() { return 10L; }
+            public Long getProcessId() { return 20L; }
+            public Integer getOutputQuantity() { return output; }
+            public Integer getDefectQuantity() { return defect; }
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.mes.messystem.service;
+
+import com.mes.messystem.dto.TodayProductionStats;
+import com.mes.messystem.repository.LotHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ProductionCounterServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    private LotHistoryRepository lotHistoryRepository;
+    private ProductionCounterService counters;
+
+    @BeforeEach
+    void setup() {
+        lotHistoryRepository = mock(LotHistoryRepository.class);
+        counters = new ProductionCounterService(lotHistoryRepository);
+        setTime(DAY.atTime(12, 0));
+    }
+
+    @Test
+    void countsOnlyTodaysRecords() {
+        counters.rebuild();
+        counters.record(1L, DAY.atTime(11, 0), 90, 10);
+        counters.record(2L, DAY.minusDays(1).atTime(23, 0), 50, 50);
+        counters.record(3L, null, 50, 50);
+
+        TodayProductionStats stats = counters.getTodayStats();
+        assertEquals(90, stats.getTotalGoodQty());
+        assertEquals(10, stats.getTotalBadQty());
+        assertEquals(100, stats.getTotalQty());
+        assertEquals(10.0, stats.getDefectRate(), 1e-9);
+    }
+
+    @Test
+    void rebuildStartsFromStoredHistories() {
+        when(lotHistoryRepository.findQuantitiesBetween(DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(row(1L, 40, 5), row(2L, null, 5)));
+
+        counters.rebuild();
+
+        TodayProductionStats stats = counters.getTodayStats();
+        assertEquals(40, stats.getTotalGoodQty());
+        assertEquals(10, stats.getTotalBadQty());
+    }
+
+    @Test
+    void rollsOverAtMidnight() {
+        setTime(DAY.atTime(23, 59));
+        counters.rebuild();
+        counters.record(1L, DAY.atTime(23, 58), 30, 0);
+        assertEquals(30, counters.getTodayStats().getTotalGoodQty());
+
+        setTime(DAY.plusDays(1).atTime(0, 1));
+        assertEquals(0, counters.getTodayStats().getTotalQty());
+
+        counters.record(2L, DAY.plusDays(1).atTime(0, 0, 30), 20, 0);
+        counters.record(3L, DAY.atTime(23, 59, 59), 99, 0);   // late for the previous day
+        assertEquals(20, counters.getTodayStats().getTotalGoodQty());
+    }
+
+    @Test
+    void replaysRecordsTheRebuildQueryDidNotSee() {
+        when(lotHistoryRepository.findQuantitiesBetween(any(), any())).thenAnswer(invocation -> {
+            // both commit while the query runs; the lower id commits last and is not in the result
+            counters.record(7L, DAY.atTime(11, 0), 50, 0);
+            counters.record(5L, DAY.atTime(11, 1), 30, 3);
+            return List.of(row(7L, 50, 0));
+        });
+
+        counters.rebuild();
+
+        TodayProductionStats stats = counters.getTodayStats();
+        assertEquals(80, stats.getTotalGoodQty());
+        assertEquals(3, stats.getTotalBadQty());
+    }
+
+    private void setTime(LocalDateTime time) {
+        Instant instant = time.atZone(ZoneId.systemDefault()).toInstant();
+        counters.setClock(Clock.fixed(instant, ZoneId.systemDefault()));
+    }
+
+    private LotHistoryRepository.HistoryQuantity row(Long id, Integer output, Integer defect) {
+        return new LotHistoryRepository.HistoryQuantity() {
+            public Long getId() { return id; }
+            public Integer getOutputQuantity() { return output; }
+            public Integer getDefectQuantity() { return defect; }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.mes.messystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TelemetryBlockCodecTest {
+
+    @Test
+    void roundTripsRegularSeriesCompactly() {
+        Random random = new Random(42);
+        int samples = 3600;
+        long[] timestamps = new long[samples];
+        double[] temperatures = new double[samples];
+        int[] speeds = new int[samples];
+        int[] statuses = new int[samples];
+
+        TelemetryBlockCodec.Encoder encoder = new TelemetryBlockCodec.Encoder();
+        long timestamp = 1_700_000_000_000L;
+        double temperature = 50.0;
+        for (int i = 0; i < samples; i++) {
+            timestamp += 1000 + random.nextInt(5) - 2;
+            temperature = Math.round((temperature + random.nextGaussian() * 0.2) * 10.0) / 10.0;
+            timestamps[i] = timestamp;
+            temperatures[i] = temperature;
+            speeds[i] = 100 + random.nextInt(51);
+            statuses[i] = i < 1800 ? 0 : 1;
+            encoder.add(timestamps[i], temperatures[i], speeds[i], statuses[i]);
+        }
+        byte[] block = encoder.finish();
+
+        TelemetryBlockCodec.Decoder decoder = new TelemetryBlockCodec.Decoder(block);
+        assertEquals(samples, decoder.count());
+        for (int i = 0; i < samples; i++) {
+            assertTrue(decoder.next());
+            assertEquals(timestamps[i], decoder.timestampMillis());
+            assertEquals(temperatures[i], decoder.temperature());
+            assertEquals(speeds[i], decoder.speed());
+            assertEquals(statuses[i], decoder.status());
+        }
+        assertFalse(decoder.next());
+        // well under a tenth of a ~100 byte equipment_data row per sample
+        assertTrue(block.length < samples * 10, "block bytes=" + block.length);
+    }
+
+    @Test
+    void roundTripsMissingValuesAndIrregularTimestamps() {
+        long[] timestamps = {5_000L, 4_000L, 4_000L, 90_000_000L, 90_000_001L};
+        double[] temperatures = {Double.NaN, 21.5, -3.25, Double.NaN, 1e300};
+        int[] speeds = {TelemetryBlockCodec.NO_SPEED, 0, 120, TelemetryBlockCodec.NO_SPEED, Integer.MAX_VALUE};
+        int[] statuses = {TelemetryBlockCodec.NO_STATUS, 2, 2, 0, TelemetryBlockCodec.NO_STATUS};
+
+        TelemetryBlockCodec.Encoder encoder = new TelemetryBlockCodec.Encoder();
+        for (int i = 0; i < timestamps.length; i++) {
+            encoder.add(timestamps[i], temperatures[i], speeds[i], statuses[i]);
+        }
+
+        TelemetryBlockCodec.Decoder decoder = new TelemetryBlockCodec.Decoder(encoder.finish());
+        for (int i = 0; i < timestamps.length; i++) {
+            assertTrue(decoder.next());
+            assertEquals(timestamps[i], decoder.timestampMillis());
+            assertEquals(Double.doubleToRawLongBits(temperatures[i]), Double.doubleToRawLongBits(decoder.temperature()));
+            assertEquals(speeds[i], decoder.speed());
+            assertEquals(statuses[i], decoder.status());
+        }
+        assertFalse(decoder.next());
+    }
+
+    @Test
+    void rejectsUnknownBlocks() {
+        assertThrows(IllegalArgumentException.class, () -> new TelemetryBlockCodec.Decoder(new byte[]{9, 0, 0, 0, 0}));
+    }
+}
@@ -0,0 +1,37 @@
+package com.mes.messystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TelemetryRingTest {
+
+    @Test
+    void keepsNewestSamplesAfterWrapAround() {
+        TelemetryRing ring = new TelemetryRing(4);
+        for (int i = 1; i <= 6; i++) {
+            ring.add(i * 1000L, i * 10.0, i);
+        }
+
+        TelemetryRing.Window window = ring.since(0);
+
+        assertArrayEquals(new long[]{3000, 4000, 5000, 6000}, window.timestamps());
+        assertArrayEquals(new double[]{30.0, 40.0, 50.0, 60.0}, window.temperatures());
+        assertArrayEquals(new int[]{3, 4, 5, 6}, window.speeds());
+    }
+
+    @Test
+    void returnsOnlySamplesInsideWindow() {
+        TelemetryRing ring = new TelemetryRing(8);
+        ring.add(1000L, 1.0, 1);
+        ring.add(2000L, Double.NaN, TelemetryRing.NO_SPEED);
+        ring.add(3000L, 3.0, 3);
+
+        TelemetryRing.Window window = ring.since(2000L);
+
+        assertArrayEquals(new long[]{2000, 3000}, window.timestamps());
+        assertTrue(Double.isNaN(window.temperatures()[0]));
+        assertEquals(TelemetryRing.NO_SPEED, window.speeds()[0]);
+        assertEquals(0, ring.since(10_000L).timestamps().length);
+    }
+}
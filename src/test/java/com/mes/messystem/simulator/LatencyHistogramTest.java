@@ -0,0 +1,49 @@
+package com.mes.messystem.simulator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 50; i++) {
+            histogram.recordMicros(i);
+        }
+
+        assertEquals(50, histogram.count());
+        assertEquals(25, histogram.percentileMicros(50));
+        assertEquals(50, histogram.percentileMicros(100));
+    }
+
+    @Test
+    void largeValuesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1000; micros <= 100_000; micros += 1000) {
+            histogram.recordMicros(micros);
+        }
+
+        long p50 = histogram.percentileMicros(50);
+        long p99 = histogram.percentileMicros(99);
+        assertTrue(p50 >= 50_000 && p50 <= 50_000 * 1.04, "p50=" + p50);
+        assertTrue(p99 >= 99_000 && p99 <= 100_000, "p99=" + p99);
+        assertEquals(100_000, histogram.maxMicros());
+    }
+
+    @Test
+    void mergeAddsCounts() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.recordMicros(10);
+        second.recordMicros(5_000);
+        second.recordMicros(5_000);
+
+        first.merge(second);
+
+        assertEquals(3, first.count());
+        assertEquals(5_000, first.maxMicros());
+        assertEquals(10, first.percentileMicros(10));
+    }
+}